@@ -0,0 +1,47 @@
+package com.travelplanner;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+
+/**
+ * The application booted on an embedded Postgres of its own, migrated by
+ * Flyway, for benchmarks that need real round trips. Start it in a
+ * Level.Trial setup and close it in the matching teardown.
+ */
+public final class BenchmarkApplication implements AutoCloseable {
+
+    private final EmbeddedPostgres postgres;
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkApplication(EmbeddedPostgres postgres, ConfigurableApplicationContext context) {
+        this.postgres = postgres;
+        this.context = context;
+    }
+
+    public static BenchmarkApplication start() throws IOException {
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+        // Devtools would restart the context in its own class loader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfigurableApplicationContext context = SpringApplication.run(TravelItineraryPlannerApplication.class,
+            "--server.port=0",
+            "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true",
+            "--spring.datasource.username=postgres",
+            "--spring.datasource.password=",
+            "--logging.level.com.travelplanner=WARN",
+            "--logging.level.org.springframework.security=WARN");
+        return new BenchmarkApplication(postgres, context);
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        postgres.close();
+    }
+}
@@ -0,0 +1,91 @@
+package com.travelplanner.security;
+
+import com.travelplanner.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authentication of a bearer token by JwtAuthenticationFilter: a warm token is
+ * answered by JwtPrincipalCache, a cold one misses the cache and is verified
+ * and resolved to its user. The users table is replaced by an in-memory user,
+ * so the cold figure is the cost of the signature check alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private JwtAuthenticationFilter filter;
+    private JwtPrincipalCache principalCache;
+    private String warmToken;
+    private String coldToken;
+
+    @Setup
+    public void setUp() throws Exception {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", "benchmark-secret-key-that-is-at-least-256-bits-long");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86400000);
+        jwtUtils.init();
+
+        User user = new User("Bench", "Mark", "user@example.com", "hash");
+        user.setId(UUID.randomUUID());
+        UserDetailsService userDetailsService = username -> user;
+
+        principalCache = new JwtPrincipalCache(10000, 300000);
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "principalCache", principalCache);
+        ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+
+        warmToken = jwtUtils.generateTokenFromUsername(user.getEmail());
+        coldToken = jwtUtils.generateTokenFromUsername(user.getEmail() + ".cold");
+        authenticate(warmToken);
+    }
+
+    @Benchmark
+    public Authentication warmToken() throws Exception {
+        return authenticate(warmToken);
+    }
+
+    @Benchmark
+    public Authentication coldToken() throws Exception {
+        Authentication authentication = authenticate(coldToken);
+        // Keep the next invocation cold as well
+        principalCache.clear();
+        return authentication;
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/trips");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
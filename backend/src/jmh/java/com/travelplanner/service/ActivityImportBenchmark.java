@@ -0,0 +1,128 @@
+package com.travelplanner.service;
+
+import com.travelplanner.BenchmarkApplication;
+import com.travelplanner.dto.activity.ActivityBulkImportRequest;
+import com.travelplanner.dto.activity.ActivityBulkImportResponse;
+import com.travelplanner.dto.activity.ActivityCreateRequest;
+import com.travelplanner.dto.dayplan.DayPlanResponse;
+import com.travelplanner.dto.trip.TripCreateRequest;
+import com.travelplanner.entity.User;
+import com.travelplanner.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Importing a trip's activities on an embedded Postgres: one bulk import
+ * through ActivityImportService against one createActivity call per activity,
+ * which is what a client without the bulk endpoint does minus HTTP. Each
+ * shot writes into a fresh ten-day trip; activities carry two tags out of a
+ * pool of twenty. The per-activity path is slow at 10,000; run it with
+ * -p activities=100,1000.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ActivityImportBenchmark {
+
+    private static final int DAYS = 10;
+
+    private static final LocalDate START = LocalDate.of(2030, 3, 1);
+
+    @Param({"100", "1000", "10000"})
+    public int activities;
+
+    private BenchmarkApplication application;
+    private ActivityImportService activityImportService;
+    private ActivityService activityService;
+    private TripService tripService;
+    private User user;
+    private UUID tripId;
+    private List<DayPlanResponse> dayPlans;
+    private ActivityBulkImportRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        application = BenchmarkApplication.start();
+        activityImportService = application.getBean(ActivityImportService.class);
+        activityService = application.getBean(ActivityService.class);
+        tripService = application.getBean(TripService.class);
+        user = application.getBean(UserRepository.class)
+            .save(new User("Import", "Bench", "import-bench@example.com", "unused"));
+
+        Map<LocalDate, List<ActivityCreateRequest>> activitiesByDate = new HashMap<>();
+        for (int i = 0; i < activities; i++) {
+            activitiesByDate.computeIfAbsent(START.plusDays(i % DAYS), date -> new ArrayList<>()).add(activity(i));
+        }
+        request = new ActivityBulkImportRequest();
+        request.setActivitiesByDate(activitiesByDate);
+    }
+
+    @Setup(Level.Invocation)
+    public void newTrip() {
+        TripCreateRequest trip = new TripCreateRequest();
+        trip.setTitle("Import bench trip");
+        trip.setStartDate(START);
+        trip.setEndDate(START.plusDays(DAYS - 1));
+        tripId = tripService.createTrip(trip, user).getId();
+        dayPlans = tripService.getDayPlans(tripId, user);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        application.close();
+    }
+
+    @Benchmark
+    public ActivityBulkImportResponse bulk() {
+        return activityImportService.importActivities(tripId, request, user);
+    }
+
+    @Benchmark
+    public int perActivity() {
+        int created = 0;
+        for (DayPlanResponse dayPlan : dayPlans) {
+            for (ActivityCreateRequest activity : request.getActivitiesByDate().getOrDefault(dayPlan.getDate(), List.of())) {
+                activityService.createActivity(dayPlan.getId(), activity, user);
+                created++;
+            }
+        }
+        return created;
+    }
+
+    private static ActivityCreateRequest activity(int n) {
+        ActivityCreateRequest activity = new ActivityCreateRequest();
+        activity.setTitle("Activity " + n);
+        activity.setLocation("Stop " + n % 50);
+        activity.setStartTime(LocalTime.of(8 + n % 12, 0));
+        activity.setEndTime(LocalTime.of(8 + n % 12, 45));
+        activity.setCost(BigDecimal.valueOf(5 + n % 40));
+        activity.setTagNames(Set.of("import-tag-" + n % 20, "import-tag-" + (n + 7) % 20));
+        return activity;
+    }
+}
@@ -0,0 +1,59 @@
+package com.travelplanner.service;
+
+import com.travelplanner.dto.analytics.CostBreakdownResponse;
+import com.travelplanner.entity.Activity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost breakdown aggregation over synthetic trips. summarizeRollups is what a
+ * request pays today; contributions is the per activity work done on writes
+ * to keep the rollups current.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CostBreakdownBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int activityCount;
+
+    private final CostRollupService costRollupService = new CostRollupService();
+
+    private List<Activity> activities;
+    private List<CostRollupService.Rollup> rollups;
+
+    @Setup
+    public void setUp() {
+        activities = Fixtures.activities(Fixtures.trip(3, 5), activityCount);
+        rollups = Fixtures.rollups(activities);
+    }
+
+    @Benchmark
+    public CostBreakdownResponse summarizeRollups() {
+        return AnalyticsService.summarize(rollups);
+    }
+
+    @Benchmark
+    public void contributions(Blackhole blackhole) {
+        for (Activity activity : activities) {
+            blackhole.consume(costRollupService.contributionOf(activity));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.travelplanner.service;
+
+import com.travelplanner.entity.Activity;
+import com.travelplanner.entity.DayPlan;
+import com.travelplanner.entity.Tag;
+import com.travelplanner.entity.Trip;
+import com.travelplanner.entity.TripMember;
+import com.travelplanner.entity.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Synthetic, deterministic entities for the benchmarks. Nothing here touches
+ * the database.
+ */
+final class Fixtures {
+
+    static final LocalDate START = LocalDate.of(2026, 1, 1);
+
+    private Fixtures() {}
+
+    static User user(int n) {
+        User user = new User("First" + n, "Last" + n, "user" + n + "@example.com", "password");
+        user.setId(new UUID(0, n));
+        user.setCreatedAt(LocalDateTime.of(2025, 1, 1, 0, 0));
+        return user;
+    }
+
+    static Tag tag(int n) {
+        Tag tag = new Tag("tag-" + n, "#3b82f6");
+        tag.setId(new UUID(1, n));
+        return tag;
+    }
+
+    static Trip trip(int tagCount, int memberCount) {
+        Trip trip = new Trip("Two weeks in Japan", "Tokyo, Kyoto and Osaka by rail",
+            START, START.plusDays(13), user(0));
+        trip.setId(new UUID(2, 0));
+        trip.setDestination("Japan");
+        trip.setBudget(new BigDecimal("4500.00"));
+        trip.setIsPublic(true);
+        trip.setCreatedAt(LocalDateTime.of(2025, 6, 1, 12, 0));
+        trip.setUpdatedAt(LocalDateTime.of(2025, 6, 2, 12, 0));
+        trip.setVersion(3L);
+
+        Set<Tag> tags = new HashSet<>();
+        for (int i = 0; i < tagCount; i++) {
+            tags.add(tag(i));
+        }
+        trip.setTags(tags);
+
+        Set<TripMember> members = new HashSet<>();
+        for (int i = 1; i <= memberCount; i++) {
+            TripMember member = new TripMember(trip, user(i), TripMember.MemberRole.MEMBER);
+            member.setId(new UUID(3, i));
+            members.add(member);
+        }
+        trip.setMembers(members);
+        return trip;
+    }
+
+    /** Spreads the activities over a 14 day trip, roughly 80% of them with a cost. */
+    static List<Activity> activities(Trip trip, int count) {
+        Random random = new Random(42);
+        Activity.ActivityCategory[] categories = Activity.ActivityCategory.values();
+        List<DayPlan> days = new ArrayList<>();
+        for (int d = 0; d < 14; d++) {
+            DayPlan dayPlan = new DayPlan(START.plusDays(d), trip);
+            dayPlan.setId(new UUID(4, d));
+            days.add(dayPlan);
+        }
+
+        List<Activity> activities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Activity activity = new Activity("Activity " + i, days.get(random.nextInt(days.size())));
+            activity.setId(new UUID(5, i));
+            if (random.nextInt(10) > 0) {
+                activity.setCategory(categories[random.nextInt(categories.length)]);
+            }
+            if (random.nextInt(5) > 0) {
+                activity.setCost(BigDecimal.valueOf(random.nextInt(20000), 2));
+            }
+            activities.add(activity);
+        }
+        return activities;
+    }
+
+    /** Groups activities the way the rollup table does: one row per day and category. */
+    static List<CostRollupService.Rollup> rollups(List<Activity> activities) {
+        CostRollupService costRollupService = new CostRollupService();
+        Map<List<Object>, CostRollupService.Rollup> rollups = new LinkedHashMap<>();
+        for (Activity activity : activities) {
+            CostRollupService.Contribution c = costRollupService.contributionOf(activity);
+            BigDecimal cost = c.cost() != null ? c.cost() : BigDecimal.ZERO;
+            int costed = c.cost() != null ? 1 : 0;
+            rollups.merge(List.of(c.date(), c.category()),
+                new CostRollupService.Rollup(c.date(), c.category(), cost, 1, costed),
+                (a, b) -> new CostRollupService.Rollup(a.date(), a.category(), a.totalCost().add(b.totalCost()),
+                    a.activityCount() + b.activityCount(), a.costedCount() + b.costedCount()));
+        }
+        return new ArrayList<>(rollups.values());
+    }
+}
@@ -0,0 +1,123 @@
+package com.travelplanner.service;
+
+import com.travelplanner.BenchmarkApplication;
+import com.travelplanner.entity.Tag;
+import com.travelplanner.metrics.SqlStatementRecorder;
+import com.travelplanner.repository.TagRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Resolving a trip's tag names on an embedded Postgres: one lookup-or-save
+ * per name, as TripService did before TagResolver, against TagResolver's
+ * single IN query plus batched upsert. Every call starts with cold caches,
+ * either for names that exist or for names seen for the first time. The
+ * statements per call are printed when the trial ends; JMH's aux counters
+ * would add them up across iterations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TagResolutionBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int tagCount;
+
+    @Param({"true", "false"})
+    public boolean existing;
+
+    private BenchmarkApplication application;
+    private TagResolver tagResolver;
+    private TagRepository tagRepository;
+    private TransactionTemplate transactionTemplate;
+    private SessionFactory sessionFactory;
+    private List<String> names;
+    private long round;
+    private long statements;
+    private long calls;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        application = BenchmarkApplication.start();
+        tagResolver = application.getBean(TagResolver.class);
+        tagRepository = application.getBean(TagRepository.class);
+        transactionTemplate = application.getBean(TransactionTemplate.class);
+        sessionFactory = application.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class);
+
+        names = names("bench-tag");
+        transactionTemplate.execute(status -> tagResolver.resolve(names));
+    }
+
+    @Setup(Level.Invocation)
+    public void coldCaches() {
+        tagResolver.clear();
+        sessionFactory.getCache().evictAllRegions();
+        if (!existing) {
+            names = names("bench-" + round++);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.out.printf("%n%d statements per call%n", calls > 0 ? statements / calls : 0);
+        application.close();
+    }
+
+    @Benchmark
+    public Set<Tag> perName() {
+        return counted(() -> {
+            Set<Tag> tags = new HashSet<>();
+            for (String name : names) {
+                tags.add(tagRepository.findByName(name).orElseGet(() -> tagRepository.save(new Tag(name))));
+            }
+            return tags;
+        });
+    }
+
+    @Benchmark
+    public Set<Tag> resolver() {
+        return counted(() -> tagResolver.resolve(names));
+    }
+
+    private Set<Tag> counted(Supplier<Set<Tag>> resolve) {
+        try (SqlStatementRecorder.Scope scope = SqlStatementRecorder.open()) {
+            Set<Tag> tags = transactionTemplate.execute(status -> resolve.get());
+            statements += scope.getCount();
+            calls++;
+            return tags;
+        }
+    }
+
+    private List<String> names(String prefix) {
+        List<String> result = new ArrayList<>(tagCount);
+        for (int i = 0; i < tagCount; i++) {
+            result.add(prefix + "-" + i);
+        }
+        return result;
+    }
+}
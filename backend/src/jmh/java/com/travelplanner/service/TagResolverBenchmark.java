@@ -0,0 +1,90 @@
+package com.travelplanner.service;
+
+import com.travelplanner.entity.Tag;
+import com.travelplanner.repository.TagRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tag resolution with a warm cache against one that holds nothing, so every
+ * name goes to the repository. The repository is an in-memory stub, which
+ * isolates the resolver's own overhead from the database round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TagResolverBenchmark {
+
+    @Param({"5", "50"})
+    public int tagCount;
+
+    private TagResolver cached;
+    private TagResolver uncached;
+    private List<String> names;
+
+    @Setup
+    public void setUp() {
+        names = new ArrayList<>();
+        for (int i = 0; i < tagCount; i++) {
+            names.add(Fixtures.tag(i).getName());
+        }
+
+        cached = resolver(1000);
+        uncached = resolver(0);
+        cached.resolve(names);
+    }
+
+    @Benchmark
+    public Set<Tag> resolveCached() {
+        return cached.resolve(names);
+    }
+
+    @Benchmark
+    public Set<Tag> resolveUncached() {
+        return uncached.resolve(names);
+    }
+
+    private static TagResolver resolver(int maxCacheSize) {
+        TagResolver resolver = new TagResolver(maxCacheSize);
+        ReflectionTestUtils.setField(resolver, "tagRepository", stubRepository());
+        return resolver;
+    }
+
+    // Answers findByNameIn as if every tag already exists
+    private static TagRepository stubRepository() {
+        return (TagRepository) Proxy.newProxyInstance(
+            TagRepository.class.getClassLoader(),
+            new Class<?>[] { TagRepository.class },
+            (proxy, method, args) -> {
+                if (!method.getName().equals("findByNameIn")) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                List<Tag> tags = new ArrayList<>();
+                for (Object name : (Collection<?>) args[0]) {
+                    String tagName = (String) name;
+                    tags.add(Fixtures.tag(Integer.parseInt(tagName.substring("tag-".length()))));
+                }
+                return tags;
+            });
+    }
+}
@@ -0,0 +1,72 @@
+package com.travelplanner.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.travelplanner.dto.analytics.CostBreakdownResponse;
+import com.travelplanner.dto.trip.TripResponse;
+import com.travelplanner.entity.Trip;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping and JSON serialization of the trip and cost breakdown
+ * responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TripMappingBenchmark {
+
+    @Param({"3", "20"})
+    public int tagCount;
+
+    private final TripService tripService = new TripService();
+
+    // Same defaults Spring Boot applies to the application's mapper
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private Trip trip;
+    private TripResponse tripResponse;
+    private CostBreakdownResponse costBreakdown;
+
+    @Setup
+    public void setUp() {
+        trip = Fixtures.trip(tagCount, 5);
+        tripResponse = tripService.convertToTripResponse(trip);
+        costBreakdown = AnalyticsService.summarize(Fixtures.rollups(Fixtures.activities(trip, 200)));
+    }
+
+    @Benchmark
+    public TripResponse convertToTripResponse() {
+        return tripService.convertToTripResponse(trip);
+    }
+
+    @Benchmark
+    public byte[] serializeTripResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(tripResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeCostBreakdown() throws Exception {
+        return objectMapper.writeValueAsBytes(costBreakdown);
+    }
+
+    @Benchmark
+    public byte[] convertAndSerializeTrip() throws Exception {
+        return objectMapper.writeValueAsBytes(tripService.convertToTripResponse(trip));
+    }
+}
@@ -0,0 +1,106 @@
+package com.travelplanner.service;
+
+import com.travelplanner.BenchmarkApplication;
+import com.travelplanner.dto.CursorPageResponse;
+import com.travelplanner.dto.trip.TripCursor;
+import com.travelplanner.dto.trip.TripResponse;
+import com.travelplanner.entity.User;
+import com.travelplanner.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offset against keyset pagination of one user's trips, on an embedded
+ * Postgres seeded with a single user owning many trips. Both go through
+ * TripService, so each page includes the batched tag query; the offset
+ * listing also pays its COUNT. A deep page shows the offset scan growing
+ * while the seek stays flat.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TripPaginationBenchmark {
+
+    private static final int TRIPS = 20000;
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final String SEED_USER_SQL =
+        "INSERT INTO users (first_name, last_name, email, password) " +
+        "VALUES ('Page', 'Bench', 'page-bench@example.com', 'unused') RETURNING id";
+
+    private static final String SEED_TRIPS_SQL =
+        "INSERT INTO trips (title, start_date, end_date, user_id) " +
+        "SELECT 'Trip ' || g, DATE '2020-01-01' + g % 3000, DATE '2020-01-01' + g % 3000 + 3, ? " +
+        "FROM generate_series(1, ?) g";
+
+    private static final String CURSOR_ROW_SQL =
+        "SELECT start_date, id FROM trips WHERE user_id = ? ORDER BY start_date DESC, id DESC OFFSET ? LIMIT 1";
+
+    @Param({"1", "500"})
+    public int page;
+
+    private BenchmarkApplication application;
+    private TripService tripService;
+    private User user;
+    private String cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        application = BenchmarkApplication.start();
+
+        JdbcTemplate jdbcTemplate = application.getBean(JdbcTemplate.class);
+        UUID userId = jdbcTemplate.queryForObject(SEED_USER_SQL, UUID.class);
+        jdbcTemplate.update(SEED_TRIPS_SQL, userId, TRIPS);
+        jdbcTemplate.execute("ANALYZE");
+
+        user = application.getBean(UserRepository.class).findById(userId).orElseThrow();
+        tripService = application.getBean(TripService.class);
+
+        // Cursor of the last row of the previous page, as a client would hold it
+        if (page > 1) {
+            cursor = jdbcTemplate.queryForObject(CURSOR_ROW_SQL, (rs, rowNum) ->
+                new TripCursor(rs.getObject("start_date", LocalDate.class), rs.getObject("id", UUID.class)).encode(),
+                userId, (page - 1) * PAGE_SIZE - 1);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        application.close();
+    }
+
+    @Benchmark
+    public Page<TripResponse> offset() {
+        Sort order = Sort.by(Sort.Order.desc("startDate"), Sort.Order.desc("id"));
+        return tripService.getUserTrips(user, PageRequest.of(page - 1, PAGE_SIZE, order));
+    }
+
+    @Benchmark
+    public CursorPageResponse<TripResponse> keyset() {
+        return tripService.getUserTripsAfter(user, cursor, PAGE_SIZE, false);
+    }
+}
@@ -0,0 +1,299 @@
+package com.travelplanner.loadtest;
+
+import com.travelplanner.entity.Activity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Seeds users, tags, trips, members, day plans and activities with the skew
+ * seen in real usage: a few users own most trips, a few tags are on most
+ * trips and activities, and activity counts per trip vary widely. Output is
+ * deterministic for a given seed.
+ */
+class DataGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataGenerator.class);
+
+    static final String[] CITIES = {
+        "Tokyo", "Kyoto", "Paris", "Lisbon", "Porto", "Rome", "Florence", "Barcelona", "Madrid", "Berlin",
+        "Prague", "Vienna", "Budapest", "Istanbul", "Marrakesh", "Cairo", "Cape Town", "Nairobi", "Bangkok",
+        "Hanoi", "Bali", "Sydney", "Auckland", "Vancouver", "Montreal", "New York", "Chicago", "Mexico City",
+        "Lima", "Cusco", "Buenos Aires", "Rio de Janeiro", "Reykjavik", "Oslo", "Stockholm", "Copenhagen",
+        "Amsterdam", "Edinburgh", "Dublin", "Athens"
+    };
+
+    static final String[] THEMES = {
+        "Food", "Hiking", "Beach", "Museums", "Nightlife", "Architecture", "Wine", "Road", "Rail", "Island",
+        "Photography", "Family", "Honeymoon", "Backpacking", "Ski", "Festival", "History", "Markets"
+    };
+
+    private static final String[] TAG_WORDS = {
+        "budget", "luxury", "solo", "family", "foodie", "outdoors", "culture", "beach", "city", "mountains",
+        "roadtrip", "weekend", "nightlife", "art", "history", "wildlife", "diving", "wine", "coffee", "markets"
+    };
+
+    private static final String[] ACTIVITY_WORDS = {
+        "Breakfast", "Lunch", "Dinner", "Walking tour", "Museum visit", "Train", "Flight", "Check-in",
+        "Check-out", "Hike", "Boat trip", "Market", "Concert", "Cooking class", "Free time", "Bike tour"
+    };
+
+    private static final int CHUNK_SIZE = 500;
+
+    private static final String INSERT_TRIP_SQL =
+        "INSERT INTO trips (id, title, description, start_date, end_date, destination, budget, is_public, user_id) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ACTIVITY_SQL =
+        "INSERT INTO activities (id, title, start_time, end_time, location, cost, category, is_completed, day_plan_id) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String REBUILD_ROLLUPS_SQL =
+        "INSERT INTO trip_cost_rollups (trip_id, date, category, total_cost, activity_count, costed_count) " +
+        "SELECT dp.trip_id, dp.date, COALESCE(a.category, 'UNCATEGORIZED'), COALESCE(SUM(a.cost), 0), " +
+        "COUNT(*), COUNT(a.cost) " +
+        "FROM activities a JOIN day_plans dp ON dp.id = a.day_plan_id " +
+        "JOIN trips t ON t.id = dp.trip_id JOIN users u ON u.id = t.user_id " +
+        "WHERE u.email LIKE ? " +
+        "GROUP BY dp.trip_id, dp.date, COALESCE(a.category, 'UNCATEGORIZED')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LoadTestOptions options;
+    private final Random random;
+
+    DataGenerator(JdbcTemplate jdbcTemplate, LoadTestOptions options) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.options = options;
+        this.random = new Random(options.seed);
+    }
+
+    static String emailPattern(long seed) {
+        return "load-" + seed + "-%@example.test";
+    }
+
+    static String email(long seed, int n) {
+        return "load-" + seed + "-" + n + "@example.test";
+    }
+
+    /**
+     * Seeds the configured volumes unless users for this seed already exist,
+     * in which case the existing data set is reused.
+     */
+    void seed(String passwordHash) {
+        Integer existing = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM users WHERE email LIKE ?", Integer.class, emailPattern(options.seed));
+        if (existing != null && existing > 0) {
+            logger.info("Reusing {} seeded users for seed {}", existing, options.seed);
+            return;
+        }
+
+        long started = System.nanoTime();
+        List<UUID> tagIds = seedTags();
+        List<UUID> userIds = seedUsers(passwordHash);
+        long activities = seedTrips(userIds, tagIds);
+
+        jdbcTemplate.update(REBUILD_ROLLUPS_SQL, emailPattern(options.seed));
+        jdbcTemplate.execute("ANALYZE");
+        logger.info("Seeded {} users, {} trips and {} activities in {} s",
+            userIds.size(), options.trips, activities, (System.nanoTime() - started) / 1_000_000_000);
+    }
+
+    private List<UUID> seedTags() {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < options.tags; i++) {
+            String word = TAG_WORDS[i % TAG_WORDS.length];
+            names.add(i < TAG_WORDS.length ? word : word + "-" + (i / TAG_WORDS.length));
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tags (name) VALUES (?) ON CONFLICT (name) DO NOTHING",
+            names.stream().map(name -> new Object[] { name }).toList());
+
+        // Keep the generated order so that popularity follows the name index
+        Map<String, UUID> ids = jdbcTemplate.query("SELECT id, name FROM tags", (rs, rowNum) ->
+                Map.entry(rs.getString("name"), rs.getObject("id", UUID.class)))
+            .stream().collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        return names.stream().map(ids::get).toList();
+    }
+
+    private List<UUID> seedUsers(String passwordHash) {
+        List<UUID> ids = new ArrayList<>(options.users);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < options.users; i++) {
+            UUID id = nextId();
+            ids.add(id);
+            rows.add(new Object[] { id, "Load" + i, "User", email(options.seed, i), passwordHash });
+            if (rows.size() == CHUNK_SIZE || i == options.users - 1) {
+                jdbcTemplate.batchUpdate(
+                    "INSERT INTO users (id, first_name, last_name, email, password) VALUES (?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        return ids;
+    }
+
+    private long seedTrips(List<UUID> userIds, List<UUID> tagIds) {
+        Zipf owners = new Zipf(userIds.size(), 1.1, random);
+        Zipf tags = new Zipf(tagIds.size(), 1.0, random);
+        LocalDate firstStart = LocalDate.of(2024, 1, 1);
+        Activity.ActivityCategory[] categories = Activity.ActivityCategory.values();
+
+        Rows trips = new Rows(INSERT_TRIP_SQL);
+        Rows tripTags = new Rows("INSERT INTO trip_tags (trip_id, tag_id) VALUES (?, ?)");
+        Rows members = new Rows(
+            "INSERT INTO trip_members (id, trip_id, user_id, role, can_edit, can_invite) VALUES (?, ?, ?, ?, ?, ?)");
+        Rows dayPlans = new Rows("INSERT INTO day_plans (id, date, trip_id) VALUES (?, ?, ?)");
+        Rows activities = new Rows(INSERT_ACTIVITY_SQL);
+        Rows activityTags = new Rows("INSERT INTO activity_tags (activity_id, tag_id) VALUES (?, ?)");
+        long activityCount = 0;
+
+        for (int t = 0; t < options.trips; t++) {
+            UUID tripId = nextId();
+            UUID ownerId = userIds.get(owners.next());
+            String city = CITIES[random.nextInt(CITIES.length)];
+            String theme = THEMES[random.nextInt(THEMES.length)];
+            LocalDate start = firstStart.plusDays(random.nextInt(4 * 365));
+            // Mostly one week trips with a long tail of multi-week ones
+            int days = Math.min(30, 1 + (int) (-Math.log(1 - random.nextDouble()) * 6));
+            trips.add(tripId, theme + " trip to " + city, "A " + days + " day " + theme.toLowerCase() + " trip around " + city,
+                Date.valueOf(start), Date.valueOf(start.plusDays(days - 1)), city,
+                BigDecimal.valueOf(200 + random.nextInt(9800)), random.nextDouble() < options.publicRatio, ownerId);
+
+            for (UUID tagId : pick(tags, tagIds, random.nextInt(4))) {
+                tripTags.add(tripId, tagId);
+            }
+
+            members.add(nextId(), tripId, ownerId, "OWNER", true, true);
+            Set<UUID> memberIds = new LinkedHashSet<>();
+            int memberCount = random.nextDouble() < 0.4 ? 1 + random.nextInt(4) : 0;
+            for (int m = 0; m < memberCount; m++) {
+                UUID userId = userIds.get(random.nextInt(userIds.size()));
+                if (!userId.equals(ownerId) && memberIds.add(userId)) {
+                    boolean admin = random.nextInt(4) == 0;
+                    members.add(nextId(), tripId, userId, admin ? "ADMIN" : "MEMBER", admin || random.nextBoolean(), admin);
+                }
+            }
+
+            // Some planners fill every hour, most add a handful of things
+            double intensity = options.activitiesPerDay * Math.exp(random.nextGaussian() * 0.6 - 0.18);
+            for (int d = 0; d < days; d++) {
+                UUID dayPlanId = nextId();
+                dayPlans.add(dayPlanId, Date.valueOf(start.plusDays(d)), tripId);
+
+                int count = Math.min(24, poisson(intensity));
+                for (int a = 0; a < count; a++) {
+                    UUID activityId = nextId();
+                    LocalTime startTime = LocalTime.of(6 + random.nextInt(16), random.nextInt(4) * 15);
+                    activities.add(activityId,
+                        ACTIVITY_WORDS[random.nextInt(ACTIVITY_WORDS.length)] + " in " + city,
+                        Time.valueOf(startTime),
+                        Time.valueOf(startTime.plusMinutes(30L + random.nextInt(180))),
+                        city,
+                        random.nextInt(5) > 0 ? BigDecimal.valueOf(random.nextInt(30000), 2) : null,
+                        random.nextInt(10) > 0 ? categories[random.nextInt(categories.length)].name() : null,
+                        random.nextInt(5) == 0,
+                        dayPlanId);
+                    for (UUID tagId : pick(tags, tagIds, random.nextInt(3))) {
+                        activityTags.add(activityId, tagId);
+                    }
+                    activityCount++;
+                }
+            }
+
+            if (trips.size() >= CHUNK_SIZE || t == options.trips - 1) {
+                // Parents before children to satisfy the foreign keys
+                for (Rows rows : List.of(trips, tripTags, members, dayPlans, activities, activityTags)) {
+                    rows.flush();
+                }
+                if ((t + 1) % (CHUNK_SIZE * 10) == 0) {
+                    logger.info("Seeded {} of {} trips", t + 1, options.trips);
+                }
+            }
+        }
+        return activityCount;
+    }
+
+    private Set<UUID> pick(Zipf zipf, List<UUID> ids, int count) {
+        Set<UUID> picked = new LinkedHashSet<>();
+        for (int i = 0; i < count; i++) {
+            picked.add(ids.get(zipf.next()));
+        }
+        return picked;
+    }
+
+    private int poisson(double lambda) {
+        double limit = Math.exp(-lambda);
+        double product = random.nextDouble();
+        int count = 0;
+        while (product > limit) {
+            product *= random.nextDouble();
+            count++;
+        }
+        return count;
+    }
+
+    private UUID nextId() {
+        return new UUID(random.nextLong(), random.nextLong());
+    }
+
+    private class Rows {
+        private final String sql;
+        private final List<Object[]> rows = new ArrayList<>();
+
+        Rows(String sql) {
+            this.sql = sql;
+        }
+
+        void add(Object... values) {
+            rows.add(values);
+        }
+
+        int size() {
+            return rows.size();
+        }
+
+        void flush() {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, rows);
+                rows.clear();
+            }
+        }
+    }
+
+    /** Samples ranks 0..n-1 with probability proportional to 1 / (rank + 1)^s. */
+    static class Zipf {
+        private final double[] cumulative;
+        private final Random random;
+
+        Zipf(int n, double s, Random random) {
+            this.random = random;
+            this.cumulative = new double[n];
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += 1 / Math.pow(i + 1, s);
+                cumulative[i] = sum;
+            }
+            for (int i = 0; i < n; i++) {
+                cumulative[i] /= sum;
+            }
+        }
+
+        int next() {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.travelplanner.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Collects the latencies of one endpoint. Samples are kept in full so the
+ * percentiles are exact; a one minute run produces at most a few million.
+ */
+class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count;
+    private int errors;
+
+    synchronized void record(long nanos, boolean success) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        if (!success) {
+            errors++;
+        }
+    }
+
+    synchronized Summary summarize(String endpoint, double seconds) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return new Summary(
+            endpoint,
+            count,
+            errors,
+            count / seconds,
+            millis(sorted, 0.50),
+            millis(sorted, 0.90),
+            millis(sorted, 0.99),
+            count > 0 ? sorted[count - 1] / 1_000_000.0 : 0
+        );
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    record Summary(String endpoint, int requests, int errors, double throughput,
+                   double p50Ms, double p90Ms, double p99Ms, double maxMs) {}
+}
@@ -0,0 +1,173 @@
+package com.travelplanner.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+/**
+ * Drives the REST API from a fixed number of closed-loop workers. Each worker
+ * picks a weighted scenario, sends it as a random principal and records the
+ * latency against the endpoint's path template. Requests that complete
+ * during the warmup are not recorded.
+ */
+class LoadGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private final String baseUrl;
+    private final List<Principal> principals;
+    private final LoadTestOptions options;
+    private final int concurrency;
+    private final Predicate<String> includeEndpoint;
+    private final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+    private final List<Scenario> scenarios = new ArrayList<>();
+    private final Map<String, LatencyRecorder> recorders = new ConcurrentHashMap<>();
+    private final LatencyRecorder overall = new LatencyRecorder();
+    private int totalWeight;
+
+    LoadGenerator(String baseUrl, List<Principal> principals, LoadTestOptions options) {
+        this(baseUrl, principals, options, options.concurrency, endpoint -> true);
+    }
+
+    LoadGenerator(String baseUrl, List<Principal> principals, LoadTestOptions options, int concurrency,
+                  Predicate<String> includeEndpoint) {
+        this.baseUrl = baseUrl;
+        this.principals = principals;
+        this.options = options;
+        this.concurrency = concurrency;
+        this.includeEndpoint = includeEndpoint;
+
+        scenario("GET /api/trips", 15, (p, r) -> get(p, "/api/trips?page=" + r.nextInt(3) + "&size=20"));
+        scenario("GET /api/trips/cursor", 15, (p, r) -> get(p, "/api/trips/cursor?size=20"));
+        scenario("GET /api/trips/{tripId}", 20, (p, r) -> get(p, "/api/trips/" + any(p.tripIds(), r)));
+        scenario("GET /api/trips/{tripId}/dayplans", 5, (p, r) -> get(p, "/api/trips/" + any(p.tripIds(), r) + "/dayplans"));
+        scenario("GET /api/trips/{tripId}/itinerary", 15, (p, r) -> get(p, "/api/trips/" + any(p.tripIds(), r) + "/itinerary"));
+        scenario("GET /api/analytics/trips/{tripId}/cost-breakdown", 10,
+            (p, r) -> get(p, "/api/analytics/trips/" + any(p.tripIds(), r) + "/cost-breakdown"));
+        scenario("GET /api/trips/search", 10, (p, r) -> get(p, "/api/trips/search?size=20&q=" + searchTerm(r)));
+        scenario("GET /api/activities/{activityId}", 10, (p, r) -> get(p, "/api/activities/" + any(p.activityIds(), r)));
+        scenario("PATCH /api/activities/{activityId}/toggle-completion", 10,
+            (p, r) -> request(p, "/api/activities/" + any(p.activityIds(), r) + "/toggle-completion")
+                .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                .build());
+    }
+
+    Result run() throws InterruptedException {
+        long measureFrom = System.nanoTime() + options.warmup.toNanos();
+        long until = measureFrom + options.duration.toNanos();
+        logger.info("Running {} workers for {} s after a {} s warmup",
+            concurrency, options.duration.toSeconds(), options.warmup.toSeconds());
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            workers.submit(() -> work(measureFrom, until));
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(options.warmup.plus(options.duration).toSeconds() + 60, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+
+        double seconds = options.duration.toNanos() / 1_000_000_000.0;
+        Map<String, LatencyRecorder.Summary> endpoints = new TreeMap<>();
+        recorders.forEach((endpoint, recorder) -> endpoints.put(endpoint, recorder.summarize(endpoint, seconds)));
+        return new Result(List.copyOf(endpoints.values()), overall.summarize("all", seconds));
+    }
+
+    private void work(long measureFrom, long until) {
+        Random random = ThreadLocalRandom.current();
+        while (System.nanoTime() < until) {
+            Scenario scenario = pick(random);
+            Principal principal = principals.get(random.nextInt(principals.size()));
+            HttpRequest request = scenario.request().apply(principal, random);
+
+            long started = System.nanoTime();
+            boolean success;
+            try {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                success = status < 400;
+            } catch (Exception e) {
+                success = false;
+            }
+            long finished = System.nanoTime();
+
+            if (started >= measureFrom && finished <= until) {
+                recorders.computeIfAbsent(scenario.endpoint(), key -> new LatencyRecorder())
+                    .record(finished - started, success);
+                overall.record(finished - started, success);
+            }
+        }
+    }
+
+    private void scenario(String endpoint, int weight, BiFunction<Principal, Random, HttpRequest> request) {
+        if (!includeEndpoint.test(endpoint)) {
+            return;
+        }
+        scenarios.add(new Scenario(endpoint, weight, request));
+        totalWeight += weight;
+    }
+
+    private Scenario pick(Random random) {
+        int roll = random.nextInt(totalWeight);
+        for (Scenario scenario : scenarios) {
+            roll -= scenario.weight();
+            if (roll < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    private HttpRequest get(Principal principal, String path) {
+        return request(principal, path).GET().build();
+    }
+
+    private HttpRequest.Builder request(Principal principal, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(Duration.ofSeconds(30))
+            .header("Authorization", "Bearer " + principal.token());
+    }
+
+    private static UUID any(List<UUID> ids, Random random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private static String searchTerm(Random random) {
+        String[] words = random.nextBoolean() ? DataGenerator.CITIES : DataGenerator.THEMES;
+        String word = words[random.nextInt(words.length)].toLowerCase();
+        // A third of the searches are prefixes, as typed into a search box
+        if (random.nextInt(3) == 0 && word.length() > 4) {
+            word = word.substring(0, 3 + random.nextInt(word.length() - 3));
+        }
+        return URLEncoder.encode(word, StandardCharsets.UTF_8);
+    }
+
+    /** A signed in user together with trips and activities it can see. */
+    record Principal(String token, List<UUID> tripIds, List<UUID> activityIds) {}
+
+    record Result(List<LatencyRecorder.Summary> endpoints, LatencyRecorder.Summary overall) {}
+
+    private record Scenario(String endpoint, int weight, BiFunction<Principal, Random, HttpRequest> request) {}
+}
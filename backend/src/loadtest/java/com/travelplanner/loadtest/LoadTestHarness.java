@@ -0,0 +1,192 @@
+package com.travelplanner.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.travelplanner.TravelItineraryPlannerApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Boots the application against Postgres, seeds a synthetic data set and
+ * drives the REST API with concurrent load, then prints throughput and
+ * latency percentiles per endpoint and writes them as JSON.
+ *
+ * Without --jdbc-url an embedded Postgres is started from the binaries
+ * shipped with io.zonky.test:embedded-postgres, so neither Docker nor a local
+ * installation is needed. Run with:
+ *
+ *   mvn -P loadtest test-compile exec:exec@loadtest -Dloadtest.args="--trips=20000 --concurrency=64"
+ */
+public class LoadTestHarness {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestHarness.class);
+
+    static final String PASSWORD = "load-test-password";
+
+    static final String TABLE_FORMAT = "%-55s %9s %7s %9s %9s %9s %9s %9s%n";
+
+    private static final String PRINCIPALS_SQL =
+        "SELECT u.id, u.email FROM users u WHERE u.email LIKE ? " +
+        "AND EXISTS (SELECT 1 FROM trip_members tm WHERE tm.user_id = u.id) " +
+        "ORDER BY md5(u.email) LIMIT ?";
+
+    private static final String VISIBLE_TRIPS_SQL =
+        "SELECT tm.trip_id FROM trip_members tm WHERE tm.user_id = ? ORDER BY tm.trip_id LIMIT 100";
+
+    private static final String VISIBLE_ACTIVITIES_SQL =
+        "SELECT a.id FROM activities a JOIN day_plans dp ON dp.id = a.day_plan_id " +
+        "JOIN trip_members tm ON tm.trip_id = dp.trip_id WHERE tm.user_id = ? ORDER BY a.id LIMIT 100";
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        try (Database database = Database.start(options)) {
+            ConfigurableApplicationContext context = startApplication(database);
+            try {
+                JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+                ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+                String baseUrl = baseUrl(context);
+
+                new DataGenerator(jdbcTemplate, options).seed(context.getBean(PasswordEncoder.class).encode(PASSWORD));
+                List<LoadGenerator.Principal> principals = signIn(baseUrl, jdbcTemplate, objectMapper, options);
+
+                LoadGenerator.Result result = new LoadGenerator(baseUrl, principals, options).run();
+                print(result);
+                writeReport(result, objectMapper, options);
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    static ConfigurableApplicationContext startApplication(Database database, String... extraArgs) {
+        // Devtools would restart the context in its own class loader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        List<String> args = new ArrayList<>(List.of(
+            "--server.port=0",
+            "--spring.datasource.url=" + database.jdbcUrl(),
+            "--spring.datasource.username=" + database.username(),
+            "--spring.datasource.password=" + database.password(),
+            "--logging.level.com.travelplanner=INFO",
+            "--logging.level.org.springframework.security=INFO"));
+        args.addAll(List.of(extraArgs));
+        return SpringApplication.run(TravelItineraryPlannerApplication.class, args.toArray(String[]::new));
+    }
+
+    static String baseUrl(ConfigurableApplicationContext context) {
+        return "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    static List<LoadGenerator.Principal> signIn(String baseUrl, JdbcTemplate jdbcTemplate,
+                                                ObjectMapper objectMapper, LoadTestOptions options) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        List<LoadGenerator.Principal> principals = new ArrayList<>();
+        List<Map<String, Object>> users = jdbcTemplate.queryForList(PRINCIPALS_SQL,
+            DataGenerator.emailPattern(options.seed), options.principals);
+
+        for (Map<String, Object> user : users) {
+            UUID userId = (UUID) user.get("id");
+            String body = objectMapper.writeValueAsString(Map.of("email", user.get("email"), "password", PASSWORD));
+            HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/signin"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(),
+                HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Sign in failed for " + user.get("email") + ": " + response.statusCode());
+            }
+            JsonNode jwt = objectMapper.readTree(response.body());
+
+            List<UUID> tripIds = jdbcTemplate.queryForList(VISIBLE_TRIPS_SQL, UUID.class, userId);
+            List<UUID> activityIds = jdbcTemplate.queryForList(VISIBLE_ACTIVITIES_SQL, UUID.class, userId);
+            if (!activityIds.isEmpty()) {
+                principals.add(new LoadGenerator.Principal(jwt.get("token").asText(), tripIds, activityIds));
+            }
+        }
+        if (principals.isEmpty()) {
+            throw new IllegalStateException("No seeded user owns or belongs to a trip");
+        }
+        logger.info("Signed in {} principals", principals.size());
+        return principals;
+    }
+
+    static void print(LoadGenerator.Result result) {
+        System.out.printf(TABLE_FORMAT, "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (LatencyRecorder.Summary summary : result.endpoints()) {
+            print(TABLE_FORMAT, summary);
+        }
+        print(TABLE_FORMAT, result.overall());
+    }
+
+    static void print(String format, LatencyRecorder.Summary summary) {
+        System.out.printf(format, summary.endpoint(), summary.requests(), summary.errors(),
+            String.format("%.1f", summary.throughput()), String.format("%.2f", summary.p50Ms()),
+            String.format("%.2f", summary.p90Ms()), String.format("%.2f", summary.p99Ms()),
+            String.format("%.2f", summary.maxMs()));
+    }
+
+    /** Postgres for the run: embedded unless --jdbc-url was given. */
+    record Database(EmbeddedPostgres postgres, String jdbcUrl, String username, String password) implements AutoCloseable {
+
+        static Database start(LoadTestOptions options) throws IOException {
+            if (options.jdbcUrl != null) {
+                return new Database(null, options.jdbcUrl, options.jdbcUsername, options.jdbcPassword);
+            }
+            EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+            logger.info("Started embedded Postgres on port {}", postgres.getPort());
+            return new Database(postgres, postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true",
+                "postgres", "");
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+    }
+
+    private static void writeReport(LoadGenerator.Result result, ObjectMapper objectMapper,
+                                    LoadTestOptions options) throws Exception {
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("users", options.users);
+        config.put("trips", options.trips);
+        config.put("tags", options.tags);
+        config.put("activitiesPerDay", options.activitiesPerDay);
+        config.put("seed", options.seed);
+        config.put("concurrency", options.concurrency);
+        config.put("warmupSeconds", options.warmup.toSeconds());
+        config.put("durationSeconds", options.duration.toSeconds());
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config);
+        report.put("endpoints", result.endpoints());
+        report.put("overall", result.overall());
+
+        File file = new File(options.report);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+        logger.info("Report written to {}", file.getAbsolutePath());
+    }
+}
@@ -0,0 +1,120 @@
+package com.travelplanner.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line options for the load test, given as --name=value.
+ */
+class LoadTestOptions {
+
+    // Data volumes
+    int users = 1000;
+    int trips = 10000;
+    int tags = 200;
+    double activitiesPerDay = 3.0;
+    double publicRatio = 0.3;
+    long seed = 42;
+
+    // Load
+    int concurrency = 32;
+    int principals = 200;
+    Duration warmup = Duration.ofSeconds(10);
+    Duration duration = Duration.ofSeconds(60);
+
+    // Threading comparison only: client counts to run in each request threading mode
+    List<Integer> clients = List.of(200, 1000, 5000);
+    List<String> modes = List.of("platform", "virtual");
+
+    // Environment
+    String jdbcUrl;
+    String jdbcUsername = "travel_user";
+    String jdbcPassword = "travel_password";
+    String report = "target/loadtest-report.json";
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions();
+        options.users = intValue(values.remove("users"), options.users);
+        options.trips = intValue(values.remove("trips"), options.trips);
+        options.tags = intValue(values.remove("tags"), options.tags);
+        options.activitiesPerDay = doubleValue(values.remove("activities-per-day"), options.activitiesPerDay);
+        options.publicRatio = doubleValue(values.remove("public-ratio"), options.publicRatio);
+        options.seed = longValue(values.remove("seed"), options.seed);
+        options.concurrency = intValue(values.remove("concurrency"), options.concurrency);
+        options.principals = intValue(values.remove("principals"), options.principals);
+        options.warmup = durationValue(values.remove("warmup"), options.warmup);
+        options.duration = durationValue(values.remove("duration"), options.duration);
+        options.clients = intListValue(values.remove("clients"), options.clients);
+        options.modes = listValue(values.remove("modes"), options.modes);
+        options.jdbcUrl = values.remove("jdbc-url");
+        options.jdbcUsername = stringValue(values.remove("jdbc-username"), options.jdbcUsername);
+        options.jdbcPassword = stringValue(values.remove("jdbc-password"), options.jdbcPassword);
+        options.report = stringValue(values.remove("report"), options.report);
+
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        return options;
+    }
+
+    private static String stringValue(String value, String defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+    private static int intValue(String value, int defaultValue) {
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    private static long longValue(String value, long defaultValue) {
+        return value != null ? Long.parseLong(value) : defaultValue;
+    }
+
+    private static List<Integer> intListValue(String value, List<Integer> defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        List<Integer> values = new ArrayList<>();
+        for (String item : value.split(",")) {
+            values.add(Integer.parseInt(item.trim()));
+        }
+        return values;
+    }
+
+    private static List<String> listValue(String value, List<String> defaultValue) {
+        return value != null ? Arrays.stream(value.split(",")).map(String::trim).toList() : defaultValue;
+    }
+
+    private static double doubleValue(String value, double defaultValue) {
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+
+    // Accepts 90s, 5m or an ISO-8601 duration
+    private static Duration durationValue(String value, Duration defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.parse(value);
+    }
+}
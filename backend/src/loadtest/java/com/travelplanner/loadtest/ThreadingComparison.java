@@ -0,0 +1,128 @@
+package com.travelplanner.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.travelplanner.config.VirtualThreadsConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the TripController and ActivityController scenarios at each --clients
+ * level with requests on platform threads and then on virtual threads, against
+ * the same seeded database, and prints one line per mode and level. Virtual
+ * threads need the application to run on Java 21:
+ *
+ *   mvn -P loadtest test-compile exec:exec@threading -Dloadtest.java=/path/to/jdk-21/bin/java \
+ *       -Dloadtest.args="--trips=20000 --clients=200,1000,5000 --duration=60s"
+ *
+ * Clients run in the same JVM as the server, so both modes share that
+ * handicap. Results are written to target/threading-comparison.json.
+ */
+public class ThreadingComparison {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadingComparison.class);
+
+    private static final String REPORT = "target/threading-comparison.json";
+
+    private static final String SUMMARY_FORMAT = "%-9s %8s %9s %7s %9s %9s %9s %9s%n";
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        if (options.modes.contains("virtual") && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need Java 21 but this is Java " + Runtime.version().feature()
+                + "; run with -Dloadtest.java=<jdk 21>/bin/java or --modes=platform");
+        }
+
+        List<Run> runs = new ArrayList<>();
+        try (LoadTestHarness.Database database = LoadTestHarness.Database.start(options)) {
+            for (String mode : options.modes) {
+                runs.addAll(runMode(database, mode, options));
+            }
+        }
+
+        System.out.printf(SUMMARY_FORMAT, "threads", "clients", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        for (Run run : runs) {
+            LatencyRecorder.Summary overall = run.result().overall();
+            System.out.printf(SUMMARY_FORMAT, run.mode(), run.clients(), overall.requests(), overall.errors(),
+                String.format("%.1f", overall.throughput()), String.format("%.2f", overall.p50Ms()),
+                String.format("%.2f", overall.p99Ms()), String.format("%.2f", overall.maxMs()));
+        }
+        writeReport(runs, options);
+    }
+
+    private static List<Run> runMode(LoadTestHarness.Database database, String mode, LoadTestOptions options)
+            throws Exception {
+        boolean virtual = switch (mode) {
+            case "platform" -> false;
+            case "virtual" -> true;
+            default -> throw new IllegalArgumentException("Unknown threading mode: " + mode);
+        };
+
+        ConfigurableApplicationContext context = LoadTestHarness.startApplication(database,
+            "--spring.threads.virtual.enabled=" + virtual);
+        try {
+            if (context.getBeanNamesForType(VirtualThreadsConfig.class).length > 0 != virtual) {
+                throw new IllegalStateException("Application did not start in " + mode + " thread mode");
+            }
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            String baseUrl = LoadTestHarness.baseUrl(context);
+
+            // Seeds on the first mode and finds the data set in place on the second
+            new DataGenerator(jdbcTemplate, options)
+                .seed(context.getBean(PasswordEncoder.class).encode(LoadTestHarness.PASSWORD));
+            List<LoadGenerator.Principal> principals = LoadTestHarness.signIn(baseUrl, jdbcTemplate,
+                context.getBean(ObjectMapper.class), options);
+
+            List<Run> runs = new ArrayList<>();
+            for (int clients : options.clients) {
+                logger.info("Running {} clients on {} threads", clients, mode);
+                LoadGenerator.Result result = new LoadGenerator(baseUrl, principals, options, clients,
+                    ThreadingComparison::isControllerEndpoint).run();
+                System.out.printf("%n%s threads, %d clients%n", mode, clients);
+                LoadTestHarness.print(result);
+                runs.add(new Run(mode, clients, result));
+            }
+            return runs;
+        } finally {
+            context.close();
+        }
+    }
+
+    // TripController and ActivityController only
+    private static boolean isControllerEndpoint(String endpoint) {
+        return !endpoint.contains("/api/analytics/");
+    }
+
+    private static void writeReport(List<Run> runs, LoadTestOptions options) throws Exception {
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("users", options.users);
+        config.put("trips", options.trips);
+        config.put("seed", options.seed);
+        config.put("javaVersion", Runtime.version().toString());
+        config.put("processors", Runtime.getRuntime().availableProcessors());
+        config.put("warmupSeconds", options.warmup.toSeconds());
+        config.put("durationSeconds", options.duration.toSeconds());
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config);
+        report.put("runs", runs);
+
+        File file = new File(REPORT);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+        logger.info("Report written to {}", file.getAbsolutePath());
+    }
+
+    record Run(String mode, int clients, LoadGenerator.Result result) {}
+}
@@ -0,0 +1,128 @@
+package com.travelplanner.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streams the JFR jdk.VirtualThreadPinned event: a virtual thread that blocks
+ * inside a synchronized block or a native frame holds on to its carrier thread.
+ * Every pinning longer than the threshold is recorded as
+ * travelplanner.threads.virtual.pinned, tagged with the library that held the
+ * monitor (jdbc-driver, connection-pool, hibernate, application or other). The
+ * first pinning at each call site is also logged with its stack.
+ */
+public class VirtualThreadPinningMonitor implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+
+    private static final int LOGGED_FRAMES = 12;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Duration threshold;
+
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry, long thresholdMs) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = Duration.ofMillis(thresholdMs);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        stream = new RecordingStream();
+        stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENT, this::onPinned);
+        stream.startAsync();
+    }
+
+    @Override
+    public void destroy() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() != null
+            ? event.getStackTrace().getFrames() : List.of();
+        RecordedFrame site = callSite(frames);
+        String source = site != null ? sourceOf(site.getMethod().getType().getName()) : "other";
+
+        Timer.builder("travelplanner.threads.virtual.pinned")
+            .description("Time virtual threads spent pinned to their carrier")
+            .tag("source", source)
+            .register(meterRegistry)
+            .record(event.getDuration());
+
+        String siteName = site != null ? site.getMethod().getType().getName() + "." + site.getMethod().getName() : "unknown";
+        if (reportedSites.add(siteName)) {
+            logger.warn("Virtual thread pinned for {} ms in {} ({}){}", event.getDuration().toMillis(), siteName,
+                source, format(event.getStackTrace()));
+        }
+    }
+
+    // The first frame outside the JDK is what entered the monitor
+    private static RecordedFrame callSite(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            if (frame.getMethod() == null) {
+                continue;
+            }
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return frame;
+            }
+        }
+        return null;
+    }
+
+    private static String sourceOf(String type) {
+        if (type.startsWith("org.postgresql.")) {
+            return "jdbc-driver";
+        }
+        if (type.startsWith("com.zaxxer.hikari.")) {
+            return "connection-pool";
+        }
+        if (type.startsWith("org.hibernate.")) {
+            return "hibernate";
+        }
+        if (type.startsWith("com.travelplanner.")) {
+            return "application";
+        }
+        return "other";
+    }
+
+    private static String format(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder();
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        for (int i = 0; i < Math.min(frames.size(), LOGGED_FRAMES); i++) {
+            RecordedFrame frame = frames.get(i);
+            if (frame.getMethod() != null) {
+                builder.append(System.lineSeparator()).append("\tat ")
+                    .append(frame.getMethod().getType().getName()).append('.').append(frame.getMethod().getName())
+                    .append(':').append(frame.getLineNumber());
+            }
+        }
+        return builder.toString();
+    }
+}
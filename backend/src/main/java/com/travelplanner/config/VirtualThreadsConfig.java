@@ -0,0 +1,69 @@
+package com.travelplanner.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Settings for running requests on virtual threads, active when
+ * spring.threads.virtual.enabled is set and the JVM is Java 21 or later.
+ * Tomcat then stops capping concurrency at its 200 worker threads, which
+ * moves the queue in front of the connection pool. The pool is therefore
+ * sized explicitly and a request gives up on a connection sooner, so that
+ * overload shows up as fast failures rather than a growing pile of parked
+ * threads.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+
+    // Static so the post processor is registered before the DataSource exists
+    @Bean
+    public static BeanPostProcessor virtualThreadPoolSizing(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    size(dataSource, environment);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${threads.virtual.pinning.threshold:20}") long thresholdMs) {
+        return new VirtualThreadPinningMonitor(meterRegistry, thresholdMs);
+    }
+
+    // Explicit spring.datasource.hikari.* settings always win
+    private static void size(HikariDataSource dataSource, Environment environment) {
+        if (!environment.containsProperty("spring.datasource.hikari.maximum-pool-size")) {
+            int maxSize = environment.getProperty("threads.virtual.pool.max-size", Integer.class,
+                Runtime.getRuntime().availableProcessors() * 2 + 1);
+            dataSource.setMaximumPoolSize(maxSize);
+            // A fixed-size pool: connections are not opened while requests queue
+            if (!environment.containsProperty("spring.datasource.hikari.minimum-idle")) {
+                dataSource.setMinimumIdle(maxSize);
+            }
+        }
+        if (!environment.containsProperty("spring.datasource.hikari.connection-timeout")) {
+            dataSource.setConnectionTimeout(environment.getProperty("threads.virtual.pool.connection-timeout",
+                Long.class, 5000L));
+        }
+        logger.info("Requests run on virtual threads; connection pool max size {}, connection timeout {} ms",
+            dataSource.getMaximumPoolSize(), dataSource.getConnectionTimeout());
+    }
+}
@@ -1,20 +1,30 @@
 package com.travelplanner.controller;
 
+import com.travelplanner.dto.activity.ActivityBulkImportRequest;
+import com.travelplanner.dto.activity.ActivityBulkImportResponse;
+import com.travelplanner.dto.activity.ActivityConflictResponse;
 import com.travelplanner.dto.activity.ActivityCreateRequest;
-import com.travelplanner.entity.Activity;
+import com.travelplanner.dto.activity.ActivityResponse;
 import com.travelplanner.entity.User;
+import com.travelplanner.service.ActivityConflictService;
+import com.travelplanner.service.ActivityImportService;
 import com.travelplanner.service.ActivityService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
@@ -26,50 +36,113 @@ public class ActivityController {
     @Autowired
     private ActivityService activityService;
 
+    @Autowired
+    private ActivityConflictService activityConflictService;
+
+    @Autowired
+    private ActivityImportService activityImportService;
+
     @PostMapping("/dayplans/{dayPlanId}/activities")
     @Operation(summary = "Create activity", description = "Create a new activity for a day plan")
-    public ResponseEntity<Activity> createActivity(
+    public ResponseEntity<ActivityResponse> createActivity(
             @PathVariable UUID dayPlanId,
             @Valid @RequestBody ActivityCreateRequest request,
             @AuthenticationPrincipal User user) {
-        Activity activity = activityService.createActivity(dayPlanId, request, user);
+        ActivityResponse activity = activityService.createActivity(dayPlanId, request, user);
         return new ResponseEntity<>(activity, HttpStatus.CREATED);
     }
 
+    @PostMapping("/trips/{tripId}/activities/bulk")
+    @Operation(summary = "Import activities",
+               description = "Create many activities of a trip at once, keyed by date; invalid entries are reported and skipped")
+    public ResponseEntity<ActivityBulkImportResponse> importActivities(
+            @PathVariable UUID tripId,
+            @Valid @RequestBody ActivityBulkImportRequest request,
+            @AuthenticationPrincipal User user) {
+        ActivityBulkImportResponse result = activityImportService.importActivities(tripId, request, user);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/dayplans/{dayPlanId}/activities")
     @Operation(summary = "Get activities", description = "Get all activities for a day plan")
-    public ResponseEntity<List<Activity>> getActivitiesByDayPlan(
+    public ResponseEntity<List<ActivityResponse>> getActivitiesByDayPlan(
             @PathVariable UUID dayPlanId,
             @AuthenticationPrincipal User user) {
-        List<Activity> activities = activityService.getActivitiesByDayPlan(dayPlanId, user);
+        List<ActivityResponse> activities = activityService.getActivitiesByDayPlan(dayPlanId, user);
         return ResponseEntity.ok(activities);
     }
 
+    @GetMapping(value = "/trips/{tripId}/activities", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream trip activities", description = "Stream all activities of a trip as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> streamTripActivities(
+            @PathVariable UUID tripId,
+            @AuthenticationPrincipal User user) {
+        activityService.verifyTripAccess(tripId, user);
+        StreamingResponseBody body = out -> activityService.writeTripActivities(tripId, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("/trips/{tripId}/activities/conflicts")
+    @Operation(summary = "Find activity conflicts", description = "List every pair of activities in a trip whose time slots overlap")
+    public ResponseEntity<List<ActivityConflictResponse>> getActivityConflicts(
+            @PathVariable UUID tripId,
+            @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(activityConflictService.findTripConflicts(tripId, user));
+    }
+
+    @GetMapping("/activities/{activityId}")
+    @Operation(summary = "Get activity", description = "Get a single activity; supports If-None-Match")
+    public ResponseEntity<ActivityResponse> getActivity(
+            @PathVariable UUID activityId,
+            @AuthenticationPrincipal User user,
+            WebRequest webRequest) {
+        Optional<Long> version = activityService.getActivityVersion(activityId, user);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = ETags.of(version.get());
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return activityService.getActivity(activityId, user)
+                .map(body -> ResponseEntity.ok().eTag(ETags.of(body.getVersion())).body(body))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PutMapping("/activities/{activityId}")
     @Operation(summary = "Update activity", description = "Update an existing activity")
-    public ResponseEntity<Activity> updateActivity(
+    public ResponseEntity<ActivityResponse> updateActivity(
             @PathVariable UUID activityId,
             @Valid @RequestBody ActivityCreateRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @AuthenticationPrincipal User user) {
-        Activity activity = activityService.updateActivity(activityId, request, user);
-        return ResponseEntity.ok(activity);
+        ActivityResponse activity = activityService.updateActivity(activityId, request, user,
+                ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(activity.getVersion())).body(activity);
     }
 
     @DeleteMapping("/activities/{activityId}")
     @Operation(summary = "Delete activity", description = "Delete an activity")
     public ResponseEntity<Void> deleteActivity(
             @PathVariable UUID activityId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @AuthenticationPrincipal User user) {
-        activityService.deleteActivity(activityId, user);
+        activityService.deleteActivity(activityId, user, ETags.expectedVersion(ifMatch));
         return ResponseEntity.noContent().build();
     }
 
     @PatchMapping("/activities/{activityId}/toggle-completion")
-    @Operation(summary = "Toggle activity completion", description = "Mark activity as completed or incomplete")
-    public ResponseEntity<Activity> toggleActivityCompletion(
+    @Operation(summary = "Toggle activity completion",
+               description = "Mark activity as completed or incomplete; pass completed to set the value explicitly")
+    public ResponseEntity<ActivityResponse> toggleActivityCompletion(
             @PathVariable UUID activityId,
+            @RequestParam(required = false) Boolean completed,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @AuthenticationPrincipal User user) {
-        Activity activity = activityService.toggleActivityCompletion(activityId, user);
-        return ResponseEntity.ok(activity);
+        ActivityResponse activity = activityService.toggleActivityCompletion(activityId, user, completed,
+                ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(activity.getVersion())).body(activity);
     }
 }
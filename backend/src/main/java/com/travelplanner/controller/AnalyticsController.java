@@ -1,8 +1,10 @@
 package com.travelplanner.controller;
 
 import com.travelplanner.dto.analytics.CostBreakdownResponse;
+import com.travelplanner.dto.analytics.UserTripSummaryResponse;
 import com.travelplanner.entity.User;
 import com.travelplanner.service.AnalyticsService;
+import com.travelplanner.service.UserTripSummaryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -22,6 +24,16 @@ public class AnalyticsController {
     @Autowired
     private AnalyticsService analyticsService;
 
+    @Autowired
+    private UserTripSummaryService userTripSummaryService;
+
+    @GetMapping("/summary")
+    @Operation(summary = "Get trip summary",
+               description = "Upcoming, ongoing and past trip counts, budget against planned spend and the next activity")
+    public ResponseEntity<UserTripSummaryResponse> getTripSummary(@AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(userTripSummaryService.getSummary(user));
+    }
+
     @GetMapping("/trips/{tripId}/cost-breakdown")
     @Operation(summary = "Get trip cost breakdown", description = "Get detailed cost analysis for a trip")
     public ResponseEntity<CostBreakdownResponse> getTripCostBreakdown(
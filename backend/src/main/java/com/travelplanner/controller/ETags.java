@@ -0,0 +1,33 @@
+package com.travelplanner.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Strong entity tags derived from the version column of trips and activities.
+ */
+final class ETags {
+
+    private ETags() {}
+
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // Version an If-Match header requires, or null when the header is absent or "*"
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // fall through, an unknown tag can never match
+            }
+        }
+        // Weak or foreign tags never match under the strong comparison If-Match uses
+        throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not match the current version");
+    }
+}
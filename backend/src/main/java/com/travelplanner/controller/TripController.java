@@ -1,9 +1,18 @@
 package com.travelplanner.controller;
 
+import com.travelplanner.dto.CursorPageResponse;
+import com.travelplanner.dto.calendar.CalendarResponse;
+import com.travelplanner.dto.dayplan.DayPlanResponse;
+import com.travelplanner.dto.trip.ItineraryResponse;
 import com.travelplanner.dto.trip.TripCreateRequest;
 import com.travelplanner.dto.trip.TripResponse;
 import com.travelplanner.entity.User;
+import com.travelplanner.dto.transfer.TripImportResponse;
+import com.travelplanner.service.TripCalendarService;
+import com.travelplanner.service.TripExportService;
+import com.travelplanner.service.TripImportService;
 import com.travelplanner.service.TripService;
+import com.travelplanner.service.TripTransferCodec;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,11 +20,22 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -25,9 +45,20 @@ import java.util.UUID;
 @SecurityRequirement(name = "bearerAuth")
 public class TripController {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     @Autowired
     private TripService tripService;
 
+    @Autowired
+    private TripExportService tripExportService;
+
+    @Autowired
+    private TripImportService tripImportService;
+
+    @Autowired
+    private TripCalendarService tripCalendarService;
+
     @PostMapping
     @Operation(summary = "Create a new trip", description = "Create a new trip for the authenticated user")
     public ResponseEntity<TripResponse> createTrip(
@@ -46,6 +77,66 @@ public class TripController {
         return ResponseEntity.ok(trips);
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "Get user trips by cursor",
+               description = "Get the authenticated user's trips ordered by start date using an opaque cursor instead of a page number")
+    public ResponseEntity<CursorPageResponse<TripResponse>> getUserTripsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @AuthenticationPrincipal User user) {
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        CursorPageResponse<TripResponse> trips = tripService.getUserTripsAfter(user, cursor, pageSize, includeTotal);
+        return ResponseEntity.ok(trips);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search public trips",
+               description = "Ranked search over title, destination, tags and description of public trips")
+    public ResponseEntity<CursorPageResponse<TripResponse>> searchPublicTrips(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        return ResponseEntity.ok(tripService.searchPublicTrips(query, cursor, pageSize));
+    }
+
+
+    @GetMapping("/calendar")
+    @Operation(summary = "Trip calendar",
+               description = "Owned and shared trips overlapping the window [from, to], with their day plans in it")
+    public ResponseEntity<CalendarResponse> getCalendar(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(tripCalendarService.getCalendar(user, from, to));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export own trips",
+               description = "Stream every trip owned by the authenticated user as NDJSON or binary (format=ndjson|binary)")
+    public ResponseEntity<StreamingResponseBody> exportUserTrips(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @AuthenticationPrincipal User user) {
+        TripTransferCodec.Format transferFormat = transferFormat(format);
+        tripExportService.verifyCanExportOwn(user);
+        StreamingResponseBody body = out -> tripExportService.exportUserTrips(user, transferFormat, out);
+        return exportResponse(transferFormat, "trips", body);
+    }
+
+    @PostMapping(value = "/import", consumes = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE })
+    @Operation(summary = "Import trips",
+               description = "Recreate trips from an export stream; the authenticated user becomes their owner " +
+                             "and author of their comments, and exported members are invited by email")
+    public ResponseEntity<TripImportResponse> importTrips(
+            InputStream body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @AuthenticationPrincipal User user) throws IOException {
+        TripTransferCodec.Format transferFormat = MediaType.APPLICATION_NDJSON.includes(contentType)
+                ? TripTransferCodec.Format.NDJSON : TripTransferCodec.Format.BINARY;
+        TripImportResponse result = tripImportService.importTrips(body, transferFormat, user);
+        return new ResponseEntity<>(result, HttpStatus.CREATED);
+    }
 
     @GetMapping("/test")
     @Operation(summary = "Test endpoint", description = "Simple test endpoint")
@@ -57,28 +148,95 @@ public class TripController {
     @Operation(summary = "Get trip by ID", description = "Get a specific trip by its ID")
     public ResponseEntity<TripResponse> getTripById(
             @PathVariable UUID tripId,
-            @AuthenticationPrincipal User user) {
+            @AuthenticationPrincipal User user,
+            WebRequest webRequest) {
+        Optional<Long> version = tripService.getTripVersion(tripId, user);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = ETags.of(version.get());
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
         Optional<TripResponse> trip = tripService.getTripById(tripId, user);
-        return trip.map(ResponseEntity::ok)
+        return trip.map(body -> ResponseEntity.ok().eTag(ETags.of(body.getVersion())).body(body))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{tripId}/dayplans")
+    @Operation(summary = "Get day plans", description = "Get the day plans of a trip ordered by date")
+    public ResponseEntity<List<DayPlanResponse>> getDayPlans(
+            @PathVariable UUID tripId,
+            @AuthenticationPrincipal User user) {
+        List<DayPlanResponse> dayPlans = tripService.getDayPlans(tripId, user);
+        return ResponseEntity.ok(dayPlans);
+    }
+
+    @GetMapping("/{tripId}/itinerary")
+    @Operation(summary = "Get itinerary",
+               description = "Get a trip with its day plans and their activities in one response")
+    public ResponseEntity<ItineraryResponse> getItinerary(
+            @PathVariable UUID tripId,
+            @AuthenticationPrincipal User user,
+            WebRequest webRequest) {
+        String etag = tripService.getItineraryETag(tripId, user);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(tripService.getItinerary(tripId, user));
+    }
+
+    @GetMapping("/{tripId}/export")
+    @Operation(summary = "Export trip",
+               description = "Stream a trip with its day plans, activities, tags, members and comments (format=ndjson|binary)")
+    public ResponseEntity<StreamingResponseBody> exportTrip(
+            @PathVariable UUID tripId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @AuthenticationPrincipal User user) {
+        TripTransferCodec.Format transferFormat = transferFormat(format);
+        tripExportService.verifyCanExport(tripId, user);
+        StreamingResponseBody body = out -> tripExportService.exportTrip(tripId, transferFormat, out);
+        return exportResponse(transferFormat, "trip-" + tripId, body);
+    }
+
     @PutMapping("/{tripId}")
     @Operation(summary = "Update trip", description = "Update an existing trip")
     public ResponseEntity<TripResponse> updateTrip(
             @PathVariable UUID tripId,
             @Valid @RequestBody TripCreateRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @AuthenticationPrincipal User user) {
-        TripResponse trip = tripService.updateTrip(tripId, request, user);
-        return ResponseEntity.ok(trip);
+        TripResponse trip = tripService.updateTrip(tripId, request, user, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(trip.getVersion())).body(trip);
     }
 
     @DeleteMapping("/{tripId}")
-    @Operation(summary = "Delete trip", description = "Delete a trip (owner only)")
+    @Operation(summary = "Delete trip",
+               description = "Delete a trip (owner only). With async=true the trip is hidden at once and purged in the background")
     public ResponseEntity<Void> deleteTrip(
             @PathVariable UUID tripId,
+            @RequestParam(defaultValue = "false") boolean async,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @AuthenticationPrincipal User user) {
-        tripService.deleteTrip(tripId, user);
-        return ResponseEntity.noContent().build();
+        tripService.deleteTrip(tripId, user, ETags.expectedVersion(ifMatch), async);
+        return async ? ResponseEntity.accepted().build() : ResponseEntity.noContent().build();
+    }
+
+    private TripTransferCodec.Format transferFormat(String format) {
+        try {
+            return TripTransferCodec.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown export format: " + format);
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportResponse(TripTransferCodec.Format format, String name,
+                                                                 StreamingResponseBody body) {
+        boolean ndjson = format == TripTransferCodec.Format.NDJSON;
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + name + (ndjson ? ".ndjson" : ".tpx") + "\"")
+                .body(body);
     }
 }
@@ -0,0 +1,21 @@
+package com.travelplanner.dto.activity;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+public class ActivityBulkImportRequest {
+    @NotEmpty
+    private Map<LocalDate, List<ActivityCreateRequest>> activitiesByDate;
+
+    // Getters and Setters
+    public Map<LocalDate, List<ActivityCreateRequest>> getActivitiesByDate() {
+        return activitiesByDate;
+    }
+
+    public void setActivitiesByDate(Map<LocalDate, List<ActivityCreateRequest>> activitiesByDate) {
+        this.activitiesByDate = activitiesByDate;
+    }
+}
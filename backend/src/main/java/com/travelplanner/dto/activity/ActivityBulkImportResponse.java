@@ -0,0 +1,66 @@
+package com.travelplanner.dto.activity;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ActivityBulkImportResponse {
+    private int imported;
+    private List<Failure> failures = new ArrayList<>();
+
+    // Getters and Setters
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public List<Failure> getFailures() {
+        return failures;
+    }
+
+    public void setFailures(List<Failure> failures) {
+        this.failures = failures;
+    }
+
+    // An activity that was skipped, identified by its date and position in that date's list
+    public static class Failure {
+        private LocalDate date;
+        private int index;
+        private String message;
+
+        public Failure() {}
+
+        public Failure(LocalDate date, int index, String message) {
+            this.date = date;
+            this.index = index;
+            this.message = message;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public void setDate(LocalDate date) {
+            this.date = date;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public void setIndex(int index) {
+            this.index = index;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.travelplanner.dto.activity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class ActivityConflictResponse {
+    private UUID activityId;
+    private String activityTitle;
+    private UUID conflictingActivityId;
+    private String conflictingActivityTitle;
+    private LocalDateTime overlapStart;
+    private LocalDateTime overlapEnd;
+
+    public ActivityConflictResponse() {}
+
+    public ActivityConflictResponse(UUID activityId, String activityTitle,
+                                    UUID conflictingActivityId, String conflictingActivityTitle,
+                                    LocalDateTime overlapStart, LocalDateTime overlapEnd) {
+        this.activityId = activityId;
+        this.activityTitle = activityTitle;
+        this.conflictingActivityId = conflictingActivityId;
+        this.conflictingActivityTitle = conflictingActivityTitle;
+        this.overlapStart = overlapStart;
+        this.overlapEnd = overlapEnd;
+    }
+
+    // Getters and Setters
+    public UUID getActivityId() {
+        return activityId;
+    }
+
+    public void setActivityId(UUID activityId) {
+        this.activityId = activityId;
+    }
+
+    public String getActivityTitle() {
+        return activityTitle;
+    }
+
+    public void setActivityTitle(String activityTitle) {
+        this.activityTitle = activityTitle;
+    }
+
+    public UUID getConflictingActivityId() {
+        return conflictingActivityId;
+    }
+
+    public void setConflictingActivityId(UUID conflictingActivityId) {
+        this.conflictingActivityId = conflictingActivityId;
+    }
+
+    public String getConflictingActivityTitle() {
+        return conflictingActivityTitle;
+    }
+
+    public void setConflictingActivityTitle(String conflictingActivityTitle) {
+        this.conflictingActivityTitle = conflictingActivityTitle;
+    }
+
+    public LocalDateTime getOverlapStart() {
+        return overlapStart;
+    }
+
+    public void setOverlapStart(LocalDateTime overlapStart) {
+        this.overlapStart = overlapStart;
+    }
+
+    public LocalDateTime getOverlapEnd() {
+        return overlapEnd;
+    }
+
+    public void setOverlapEnd(LocalDateTime overlapEnd) {
+        this.overlapEnd = overlapEnd;
+    }
+}
@@ -1,6 +1,7 @@
 package com.travelplanner.dto.activity;
 
 import com.travelplanner.entity.Activity;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
@@ -22,15 +23,17 @@ public class ActivityCreateRequest {
     @Size(max = 255)
     private String location;
 
+    @Digits(integer = 8, fraction = 2)
     private BigDecimal cost;
 
     private Activity.ActivityCategory category;
 
+    @Size(max = 500)
     private String bookingUrl;
 
     private String notes;
 
-    private Set<String> tagNames;
+    private Set<@Size(max = 50) String> tagNames;
 
     // Getters and Setters
     public String getTitle() {
@@ -0,0 +1,173 @@
+package com.travelplanner.dto.activity;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.travelplanner.dto.tag.TagResponse;
+import com.travelplanner.entity.Activity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+public class ActivityResponse {
+    private UUID id;
+    private String title;
+    private String description;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private String location;
+    private BigDecimal cost;
+    private Activity.ActivityCategory category;
+    private String bookingUrl;
+    private String notes;
+    private Boolean isCompleted;
+    private UUID dayPlanId;
+    private Set<TagResponse> tags = new HashSet<>();
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Long version;
+
+    // Only filled in on create and update
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<ActivityConflictResponse> conflicts;
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public BigDecimal getCost() {
+        return cost;
+    }
+
+    public void setCost(BigDecimal cost) {
+        this.cost = cost;
+    }
+
+    public Activity.ActivityCategory getCategory() {
+        return category;
+    }
+
+    public void setCategory(Activity.ActivityCategory category) {
+        this.category = category;
+    }
+
+    public String getBookingUrl() {
+        return bookingUrl;
+    }
+
+    public void setBookingUrl(String bookingUrl) {
+        this.bookingUrl = bookingUrl;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    public Boolean getIsCompleted() {
+        return isCompleted;
+    }
+
+    public void setIsCompleted(Boolean isCompleted) {
+        this.isCompleted = isCompleted;
+    }
+
+    public UUID getDayPlanId() {
+        return dayPlanId;
+    }
+
+    public void setDayPlanId(UUID dayPlanId) {
+        this.dayPlanId = dayPlanId;
+    }
+
+    public Set<TagResponse> getTags() {
+        return tags;
+    }
+
+    public void setTags(Set<TagResponse> tags) {
+        this.tags = tags;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public List<ActivityConflictResponse> getConflicts() {
+        return conflicts;
+    }
+
+    public void setConflicts(List<ActivityConflictResponse> conflicts) {
+        this.conflicts = conflicts;
+    }
+}
@@ -0,0 +1,74 @@
+package com.travelplanner.dto.analytics;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class UserTripSummaryResponse {
+    private Integer upcomingTrips;
+    private Integer ongoingTrips;
+    private Integer pastTrips;
+    private BigDecimal totalBudget;
+    private BigDecimal plannedSpend;
+    private NextActivity nextActivity;
+    private LocalDateTime updatedAt;
+
+    // Getters and Setters
+    public Integer getUpcomingTrips() {
+        return upcomingTrips;
+    }
+
+    public void setUpcomingTrips(Integer upcomingTrips) {
+        this.upcomingTrips = upcomingTrips;
+    }
+
+    public Integer getOngoingTrips() {
+        return ongoingTrips;
+    }
+
+    public void setOngoingTrips(Integer ongoingTrips) {
+        this.ongoingTrips = ongoingTrips;
+    }
+
+    public Integer getPastTrips() {
+        return pastTrips;
+    }
+
+    public void setPastTrips(Integer pastTrips) {
+        this.pastTrips = pastTrips;
+    }
+
+    public BigDecimal getTotalBudget() {
+        return totalBudget;
+    }
+
+    public void setTotalBudget(BigDecimal totalBudget) {
+        this.totalBudget = totalBudget;
+    }
+
+    public BigDecimal getPlannedSpend() {
+        return plannedSpend;
+    }
+
+    public void setPlannedSpend(BigDecimal plannedSpend) {
+        this.plannedSpend = plannedSpend;
+    }
+
+    public NextActivity getNextActivity() {
+        return nextActivity;
+    }
+
+    public void setNextActivity(NextActivity nextActivity) {
+        this.nextActivity = nextActivity;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public record NextActivity(UUID id, String title, UUID tripId, LocalDateTime startsAt) {}
+}
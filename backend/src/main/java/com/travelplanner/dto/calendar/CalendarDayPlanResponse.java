@@ -0,0 +1,64 @@
+package com.travelplanner.dto.calendar;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+public class CalendarDayPlanResponse {
+    private UUID id;
+    private LocalDate date;
+    private String notes;
+    private int activityCount;
+    private BigDecimal totalCost;
+
+    public CalendarDayPlanResponse() {}
+
+    public CalendarDayPlanResponse(UUID id, LocalDate date, String notes, int activityCount, BigDecimal totalCost) {
+        this.id = id;
+        this.date = date;
+        this.notes = notes;
+        this.activityCount = activityCount;
+        this.totalCost = totalCost;
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    public int getActivityCount() {
+        return activityCount;
+    }
+
+    public void setActivityCount(int activityCount) {
+        this.activityCount = activityCount;
+    }
+
+    public BigDecimal getTotalCost() {
+        return totalCost;
+    }
+
+    public void setTotalCost(BigDecimal totalCost) {
+        this.totalCost = totalCost;
+    }
+}
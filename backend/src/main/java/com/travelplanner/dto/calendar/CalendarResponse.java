@@ -0,0 +1,43 @@
+package com.travelplanner.dto.calendar;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class CalendarResponse {
+    private LocalDate from;
+    private LocalDate to;
+    private List<CalendarTripResponse> trips;
+
+    public CalendarResponse() {}
+
+    public CalendarResponse(LocalDate from, LocalDate to, List<CalendarTripResponse> trips) {
+        this.from = from;
+        this.to = to;
+        this.trips = trips;
+    }
+
+    // Getters and Setters
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public List<CalendarTripResponse> getTrips() {
+        return trips;
+    }
+
+    public void setTrips(List<CalendarTripResponse> trips) {
+        this.trips = trips;
+    }
+}
@@ -0,0 +1,84 @@
+package com.travelplanner.dto.calendar;
+
+import com.travelplanner.entity.TripMember;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class CalendarTripResponse {
+    private UUID id;
+    private String title;
+    private String destination;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Boolean isPublic;
+    private TripMember.MemberRole role;
+    private List<CalendarDayPlanResponse> dayPlans = new ArrayList<>();
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public void setDestination(String destination) {
+        this.destination = destination;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public Boolean getIsPublic() {
+        return isPublic;
+    }
+
+    public void setIsPublic(Boolean isPublic) {
+        this.isPublic = isPublic;
+    }
+
+    public TripMember.MemberRole getRole() {
+        return role;
+    }
+
+    public void setRole(TripMember.MemberRole role) {
+        this.role = role;
+    }
+
+    public List<CalendarDayPlanResponse> getDayPlans() {
+        return dayPlans;
+    }
+
+    public void setDayPlans(List<CalendarDayPlanResponse> dayPlans) {
+        this.dayPlans = dayPlans;
+    }
+}
@@ -0,0 +1,56 @@
+package com.travelplanner.dto.dayplan;
+
+import com.travelplanner.dto.activity.ActivityResponse;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class DayPlanDetailResponse {
+    private UUID id;
+    private LocalDate date;
+    private String notes;
+    private List<ActivityResponse> activities = new ArrayList<>();
+
+    public DayPlanDetailResponse() {}
+
+    public DayPlanDetailResponse(DayPlanResponse dayPlan) {
+        this.id = dayPlan.getId();
+        this.date = dayPlan.getDate();
+        this.notes = dayPlan.getNotes();
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    public List<ActivityResponse> getActivities() {
+        return activities;
+    }
+
+    public void setActivities(List<ActivityResponse> activities) {
+        this.activities = activities;
+    }
+}
@@ -0,0 +1,43 @@
+package com.travelplanner.dto.dayplan;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public class DayPlanResponse {
+    private UUID id;
+    private LocalDate date;
+    private String notes;
+
+    public DayPlanResponse() {}
+
+    public DayPlanResponse(UUID id, LocalDate date, String notes) {
+        this.id = id;
+        this.date = date;
+        this.notes = notes;
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+}
@@ -0,0 +1,46 @@
+package com.travelplanner.dto.transfer;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One record of a trip export. Per trip the stream contains, in order: the
+ * tags it uses, the trip itself, its members, day plans, activities and
+ * comments. Ids are the ones of the exporting database and are only used to
+ * link records to each other; users are referenced by email.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+    @JsonSubTypes.Type(value = TransferRecord.TagRecord.class, name = "tag"),
+    @JsonSubTypes.Type(value = TransferRecord.TripRecord.class, name = "trip"),
+    @JsonSubTypes.Type(value = TransferRecord.MemberRecord.class, name = "member"),
+    @JsonSubTypes.Type(value = TransferRecord.DayPlanRecord.class, name = "dayPlan"),
+    @JsonSubTypes.Type(value = TransferRecord.ActivityRecord.class, name = "activity"),
+    @JsonSubTypes.Type(value = TransferRecord.CommentRecord.class, name = "comment")
+})
+public sealed interface TransferRecord {
+
+    record TagRecord(String name, String color) implements TransferRecord {}
+
+    record TripRecord(UUID id, String title, String description, LocalDate startDate, LocalDate endDate,
+                      String destination, BigDecimal budget, boolean isPublic, String coverImageUrl,
+                      List<String> tagNames) implements TransferRecord {}
+
+    record MemberRecord(String email, String role, boolean canEdit, boolean canInvite) implements TransferRecord {}
+
+    record DayPlanRecord(UUID id, LocalDate date, String notes) implements TransferRecord {}
+
+    record ActivityRecord(UUID id, UUID dayPlanId, String title, String description, LocalTime startTime,
+                          LocalTime endTime, String location, BigDecimal cost, String category, String bookingUrl,
+                          String notes, boolean isCompleted, List<String> tagNames) implements TransferRecord {}
+
+    record CommentRecord(UUID id, UUID activityId, String authorEmail, String content,
+                         LocalDateTime createdAt) implements TransferRecord {}
+}
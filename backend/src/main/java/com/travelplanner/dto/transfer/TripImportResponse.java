@@ -0,0 +1,46 @@
+package com.travelplanner.dto.transfer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class TripImportResponse {
+    private List<UUID> tripIds = new ArrayList<>();
+    private long activities;
+    private long comments;
+    private long invitations;
+
+    // Getters and Setters
+    public List<UUID> getTripIds() {
+        return tripIds;
+    }
+
+    public void setTripIds(List<UUID> tripIds) {
+        this.tripIds = tripIds;
+    }
+
+    public long getActivities() {
+        return activities;
+    }
+
+    public void setActivities(long activities) {
+        this.activities = activities;
+    }
+
+    public long getComments() {
+        return comments;
+    }
+
+    public void setComments(long comments) {
+        this.comments = comments;
+    }
+
+    // Exported members, invited by email
+    public long getInvitations() {
+        return invitations;
+    }
+
+    public void setInvitations(long invitations) {
+        this.invitations = invitations;
+    }
+}
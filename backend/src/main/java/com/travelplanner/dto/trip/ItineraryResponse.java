@@ -0,0 +1,34 @@
+package com.travelplanner.dto.trip;
+
+import com.travelplanner.dto.dayplan.DayPlanDetailResponse;
+
+import java.util.List;
+
+public class ItineraryResponse {
+    private TripResponse trip;
+    private List<DayPlanDetailResponse> dayPlans;
+
+    public ItineraryResponse() {}
+
+    public ItineraryResponse(TripResponse trip, List<DayPlanDetailResponse> dayPlans) {
+        this.trip = trip;
+        this.dayPlans = dayPlans;
+    }
+
+    // Getters and Setters
+    public TripResponse getTrip() {
+        return trip;
+    }
+
+    public void setTrip(TripResponse trip) {
+        this.trip = trip;
+    }
+
+    public List<DayPlanDetailResponse> getDayPlans() {
+        return dayPlans;
+    }
+
+    public void setDayPlans(List<DayPlanDetailResponse> dayPlans) {
+        this.dayPlans = dayPlans;
+    }
+}
@@ -0,0 +1,47 @@
+package com.travelplanner.dto.trip;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a trip listing ordered by (start_date DESC, id DESC). Clients
+ * only ever see the opaque encoded form.
+ */
+public class TripCursor {
+    private final LocalDate startDate;
+    private final UUID id;
+
+    public TripCursor(LocalDate startDate, UUID id) {
+        this.startDate = startDate;
+        this.id = id;
+    }
+
+    public static TripCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\|", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new TripCursor(LocalDate.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw = startDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+}
@@ -1,7 +1,7 @@
 package com.travelplanner.dto.trip;
 
+import com.travelplanner.dto.tag.TagResponse;
 import com.travelplanner.dto.user.UserSummaryResponse;
-import com.travelplanner.entity.Tag;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -20,10 +20,11 @@ public class TripResponse {
     private Boolean isPublic;
     private String coverImageUrl;
     private UserSummaryResponse owner;
-    private Set<Tag> tags;
+    private Set<TagResponse> tags;
     private Integer memberCount;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 
     // Getters and Setters
     public UUID getId() {
@@ -106,11 +107,11 @@ public class TripResponse {
         this.owner = owner;
     }
 
-    public Set<Tag> getTags() {
+    public Set<TagResponse> getTags() {
         return tags;
     }
 
-    public void setTags(Set<Tag> tags) {
+    public void setTags(Set<TagResponse> tags) {
         this.tags = tags;
     }
 
@@ -137,4 +138,12 @@ public class TripResponse {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
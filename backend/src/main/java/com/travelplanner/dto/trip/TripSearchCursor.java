@@ -0,0 +1,41 @@
+package com.travelplanner.dto.trip;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a ranked search result ordered by (score DESC, id DESC). The
+ * score is carried exactly so the next page resumes after the same row.
+ */
+public class TripSearchCursor {
+    private final float score;
+    private final UUID id;
+
+    public TripSearchCursor(float score, UUID id) {
+        this.score = score;
+        this.id = id;
+    }
+
+    public static TripSearchCursor decode(String cursor) {
+        String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        String[] parts = decoded.split("\\|", 2);
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new TripSearchCursor(Float.parseFloat(parts[0]), UUID.fromString(parts[1]));
+    }
+
+    public String encode() {
+        String raw = Float.toString(score) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public float getScore() {
+        return score;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+}
@@ -47,6 +47,10 @@ public class Activity extends BaseEntity {
     @Column(name = "is_completed", nullable = false)
     private Boolean isCompleted = false;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "day_plan_id", nullable = false)
     private DayPlan dayPlan;
@@ -165,6 +169,14 @@ public class Activity extends BaseEntity {
         this.isCompleted = isCompleted;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public DayPlan getDayPlan() {
         return dayPlan;
     }
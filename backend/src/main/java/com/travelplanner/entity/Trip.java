@@ -1,5 +1,6 @@
 package com.travelplanner.entity;
 
+import com.travelplanner.service.TripAccessCacheListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -7,11 +8,13 @@ import jakarta.validation.constraints.Size;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
 @Table(name = "trips")
+@EntityListeners(TripAccessCacheListener.class)
 public class Trip extends BaseEntity {
 
     @NotBlank
@@ -43,6 +46,14 @@ public class Trip extends BaseEntity {
     @Column(name = "cover_image_url")
     private String coverImageUrl;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    // Set when the trip is awaiting an asynchronous purge
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -140,6 +151,22 @@ public class Trip extends BaseEntity {
         this.coverImageUrl = coverImageUrl;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
     public User getUser() {
         return user;
     }
@@ -1,10 +1,16 @@
 package com.travelplanner.entity;
 
+import com.travelplanner.service.TripAccessCacheListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "trip_members")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "trip-members")
+@EntityListeners(TripAccessCacheListener.class)
 public class TripMember extends BaseEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,184 @@
+package com.travelplanner.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the statements and database time of every request, including the
+ * principal lookup in the security chain, and compares them with the
+ * endpoint's budget. Every request is recorded as travelplanner.http.db.queries
+ * and travelplanner.http.db.time. Requests over budget are logged and counted
+ * as travelplanner.http.db.budget.exceeded. With expose-headers the figures
+ * are also returned in response headers.
+ *
+ * A StreamingResponseBody runs on the MVC async executor after this filter has
+ * returned. StatementScopeCallableInterceptor carries the request's scope over
+ * to that thread, and the request is recorded once the async work completes,
+ * so statements run while streaming a body count towards the request.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    static final String COUNT_HEADER = "X-Query-Count";
+    static final String TIME_HEADER = "X-Query-Time-Ms";
+    static final String EXCEEDED_HEADER = "X-Query-Budget-Exceeded";
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    private final QueryBudgetProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    public QueryBudgetFilter(QueryBudgetProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        try (SqlStatementRecorder.Scope scope = SqlStatementRecorder.open()) {
+            HeaderWritingResponse wrapped = properties.isExposeHeaders()
+                ? new HeaderWritingResponse(request, response, scope) : null;
+            filterChain.doFilter(request, wrapped != null ? wrapped : response);
+
+            String method = request.getMethod();
+            String pattern = pattern(request);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompletionListener(() ->
+                    complete(response, method, pattern, scope, wrapped)));
+            } else {
+                complete(response, method, pattern, scope, wrapped);
+            }
+        }
+    }
+
+    private void complete(HttpServletResponse response, String method, String pattern,
+                          SqlStatementRecorder.Scope scope, HeaderWritingResponse wrapped) {
+        // Bodiless responses are only committed once the filters have returned
+        if (wrapped != null && !response.isCommitted()) {
+            wrapped.writeHeaders();
+        }
+        if (pattern != null) {
+            record(method, pattern, scope);
+        }
+    }
+
+    private void record(String method, String pattern, SqlStatementRecorder.Scope scope) {
+        DistributionSummary.builder("travelplanner.http.db.queries")
+            .description("JDBC statements executed per request")
+            .baseUnit("statements")
+            .tag("method", method)
+            .tag("uri", pattern)
+            .register(meterRegistry)
+            .record(scope.getCount());
+        Timer.builder("travelplanner.http.db.time")
+            .description("Time spent executing JDBC statements per request")
+            .tag("method", method)
+            .tag("uri", pattern)
+            .register(meterRegistry)
+            .record(scope.getNanos(), TimeUnit.NANOSECONDS);
+
+        String endpoint = method + " " + pattern;
+        if (exceedsBudget(endpoint, scope)) {
+            meterRegistry.counter("travelplanner.http.db.budget.exceeded", "method", method, "uri", pattern).increment();
+            logger.warn("{} ran {} statements in {} ms, budget is {} statements{}", endpoint, scope.getCount(),
+                String.format(Locale.ROOT, "%.1f", scope.getMillis()), properties.maxStatementsFor(endpoint),
+                properties.getMaxTime() > 0 ? " / " + properties.getMaxTime() + " ms" : "");
+        }
+    }
+
+    private boolean exceedsBudget(String endpoint, SqlStatementRecorder.Scope scope) {
+        return scope.getCount() > properties.maxStatementsFor(endpoint)
+            || (properties.getMaxTime() > 0 && scope.getMillis() > properties.getMaxTime());
+    }
+
+    private static String pattern(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : null;
+    }
+
+    // Headers have to be in place before the body is flushed, so they carry the
+    // figures as of that moment. Statements run later while a body is streamed
+    // are only in the recorded metrics.
+    private class HeaderWritingResponse extends OnCommittedResponseWrapper {
+
+        private final HttpServletRequest request;
+
+        private final SqlStatementRecorder.Scope scope;
+
+        private boolean written;
+
+        HeaderWritingResponse(HttpServletRequest request, HttpServletResponse response,
+                              SqlStatementRecorder.Scope scope) {
+            super(response);
+            this.request = request;
+            this.scope = scope;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeaders();
+        }
+
+        void writeHeaders() {
+            if (written) {
+                return;
+            }
+            written = true;
+            setHeader(COUNT_HEADER, Long.toString(scope.getCount()));
+            setHeader(TIME_HEADER, String.format(Locale.ROOT, "%.1f", scope.getMillis()));
+            String pattern = pattern(request);
+            if (pattern != null && exceedsBudget(request.getMethod() + " " + pattern, scope)) {
+                setHeader(EXCEEDED_HEADER, "true");
+            }
+        }
+    }
+
+    // Records a request whose body was produced on the async executor, once
+    // the container has completed it
+    private record CompletionListener(Runnable onComplete) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            onComplete.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
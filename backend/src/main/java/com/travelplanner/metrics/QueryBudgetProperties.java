@@ -0,0 +1,71 @@
+package com.travelplanner.metrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-request SQL budget. Endpoints are keyed by method and uri template,
+ * e.g. "GET /api/trips/{tripId}/itinerary"; any endpoint without an entry
+ * gets maxStatements.
+ */
+@ConfigurationProperties(prefix = "queries.budget")
+public class QueryBudgetProperties {
+
+    private boolean enabled = true;
+
+    private int maxStatements = 20;
+
+    // Milliseconds spent executing statements; 0 disables the check
+    private long maxTime = 0;
+
+    // Adds X-Query-Count / X-Query-Time-Ms headers; meant for non-production
+    private boolean exposeHeaders = false;
+
+    private Map<String, Integer> endpoints = new HashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxStatements() {
+        return maxStatements;
+    }
+
+    public void setMaxStatements(int maxStatements) {
+        this.maxStatements = maxStatements;
+    }
+
+    public long getMaxTime() {
+        return maxTime;
+    }
+
+    public void setMaxTime(long maxTime) {
+        this.maxTime = maxTime;
+    }
+
+    public boolean isExposeHeaders() {
+        return exposeHeaders;
+    }
+
+    public void setExposeHeaders(boolean exposeHeaders) {
+        this.exposeHeaders = exposeHeaders;
+    }
+
+    public Map<String, Integer> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(Map<String, Integer> endpoints) {
+        this.endpoints = endpoints;
+    }
+
+    public int maxStatementsFor(String endpoint) {
+        return endpoints.getOrDefault(endpoint, maxStatements);
+    }
+}
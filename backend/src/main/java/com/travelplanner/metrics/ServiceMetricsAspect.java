@@ -0,0 +1,83 @@
+package com.travelplanner.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Optional;
+
+/**
+ * Times every public method of the service beans as travelplanner.service,
+ * tagged with service, method and outcome, and counts access denied and not
+ * found outcomes separately. Ordered ahead of the transaction advice so the
+ * timing includes the commit.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceMetricsAspect {
+
+    static final String SUCCESS = "success";
+    static final String ACCESS_DENIED = "access_denied";
+    static final String NOT_FOUND = "not_found";
+    static final String ERROR = "error";
+
+    private final MeterRegistry meterRegistry;
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.travelplanner.service.*Service.*(..))")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        String service = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = ERROR;
+        try {
+            Object result = joinPoint.proceed();
+            outcome = result instanceof Optional<?> optional && optional.isEmpty() ? NOT_FOUND : SUCCESS;
+            return result;
+        } catch (Throwable e) {
+            outcome = outcomeOf(e);
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("travelplanner.service")
+                .description("Service method latency")
+                .tag("service", service)
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+            if (ACCESS_DENIED.equals(outcome)) {
+                meterRegistry.counter("travelplanner.service.access.denied", "service", service, "method", method)
+                    .increment();
+            } else if (NOT_FOUND.equals(outcome)) {
+                meterRegistry.counter("travelplanner.service.not.found", "service", service, "method", method)
+                    .increment();
+            }
+        }
+    }
+
+    // Missing rows are reported as RuntimeException("... not found") throughout
+    // the services, so the message is all there is to go on.
+    static String outcomeOf(Throwable e) {
+        if (e instanceof AccessDeniedException) {
+            return ACCESS_DENIED;
+        }
+        if (e instanceof ResponseStatusException status) {
+            return status.getStatusCode() == HttpStatus.NOT_FOUND ? NOT_FOUND : ERROR;
+        }
+        if (e.getClass() == RuntimeException.class && e.getMessage() != null && e.getMessage().endsWith("not found")) {
+            return NOT_FOUND;
+        }
+        return ERROR;
+    }
+}
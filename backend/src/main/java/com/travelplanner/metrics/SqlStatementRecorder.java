@@ -0,0 +1,128 @@
+package com.travelplanner.metrics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Thread-bound scopes that add up the statements executed through
+ * QueryCountingDataSource and the time spent executing them. Scopes nest and a
+ * statement is charged to every open scope, so a test can wrap a whole MockMvc
+ * call while QueryBudgetFilter measures the request inside it. Work a request
+ * hands to another thread, such as a streamed response body, joins the
+ * request's scopes through attach.
+ */
+public final class SqlStatementRecorder {
+
+    private static final ThreadLocal<Deque<Scope>> SCOPES = new ThreadLocal<>();
+
+    private SqlStatementRecorder() {
+    }
+
+    public static Scope open() {
+        return open(false);
+    }
+
+    // Capturing keeps the SQL text of every statement, meant for tests that
+    // want to print what ran when an assertion fails
+    public static Scope open(boolean captureSql) {
+        Deque<Scope> scopes = SCOPES.get();
+        if (scopes == null) {
+            scopes = new ArrayDeque<>();
+            SCOPES.set(scopes);
+        }
+        Scope scope = new Scope(captureSql);
+        scopes.push(scope);
+        return scope;
+    }
+
+    // The scopes open on this thread, to be attached to a thread that
+    // continues the same work
+    static List<Scope> current() {
+        Deque<Scope> scopes = SCOPES.get();
+        return scopes != null ? new ArrayList<>(scopes) : List.of();
+    }
+
+    // Charges this thread's statements to scopes opened on another thread as
+    // well; each scope must be closed on this thread again when the work is done
+    static void attach(List<Scope> scopes) {
+        if (scopes.isEmpty()) {
+            return;
+        }
+        Deque<Scope> current = SCOPES.get();
+        if (current == null) {
+            current = new ArrayDeque<>();
+            SCOPES.set(current);
+        }
+        for (Scope scope : scopes) {
+            current.addLast(scope);
+        }
+    }
+
+    static boolean isRecording() {
+        return SCOPES.get() != null;
+    }
+
+    static void record(String sql, long nanos) {
+        Deque<Scope> scopes = SCOPES.get();
+        if (scopes != null) {
+            for (Scope scope : scopes) {
+                scope.add(sql, nanos);
+            }
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final List<String> statements;
+
+        private long count;
+
+        private long nanos;
+
+        private Scope(boolean captureSql) {
+            this.statements = captureSql ? new ArrayList<>() : null;
+        }
+
+        // Synchronized because an attached scope is updated from a second
+        // thread while the request thread may still read it
+        private synchronized void add(String sql, long elapsedNanos) {
+            count++;
+            nanos += elapsedNanos;
+            if (statements != null) {
+                statements.add(sql);
+            }
+        }
+
+        public synchronized long getCount() {
+            return count;
+        }
+
+        public synchronized long getNanos() {
+            return nanos;
+        }
+
+        public double getMillis() {
+            return getNanos() / 1_000_000.0;
+        }
+
+        // Empty unless the scope was opened with captureSql
+        public synchronized List<String> getStatements() {
+            return statements != null ? List.copyOf(statements) : List.of();
+        }
+
+        // Detaches the scope from the calling thread
+        @Override
+        public void close() {
+            Deque<Scope> scopes = SCOPES.get();
+            if (scopes == null) {
+                return;
+            }
+            scopes.remove(this);
+            if (scopes.isEmpty()) {
+                SCOPES.remove();
+            }
+        }
+    }
+}
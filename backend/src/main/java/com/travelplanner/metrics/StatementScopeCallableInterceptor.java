@@ -0,0 +1,41 @@
+package com.travelplanner.metrics;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Carries the statement scopes of a request over to the thread that runs its
+ * Callable or StreamingResponseBody, so that statements issued while a body
+ * is streamed are charged to the request that asked for it.
+ */
+class StatementScopeCallableInterceptor implements CallableProcessingInterceptor {
+
+    private static final String SCOPES_ATTRIBUTE = StatementScopeCallableInterceptor.class.getName() + ".SCOPES";
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        request.setAttribute(SCOPES_ATTRIBUTE, SqlStatementRecorder.current(), RequestAttributes.SCOPE_REQUEST);
+    }
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        SqlStatementRecorder.attach(scopes(request));
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        for (SqlStatementRecorder.Scope scope : scopes(request)) {
+            scope.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<SqlStatementRecorder.Scope> scopes(NativeWebRequest request) {
+        Object scopes = request.getAttribute(SCOPES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return scopes != null ? (List<SqlStatementRecorder.Scope>) scopes : List.of();
+    }
+}
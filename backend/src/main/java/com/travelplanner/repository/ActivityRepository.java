@@ -2,17 +2,32 @@ package com.travelplanner.repository;
 
 import com.travelplanner.entity.Activity;
 import com.travelplanner.entity.DayPlan;
+import com.travelplanner.repository.projection.ActivityRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface ActivityRepository extends JpaRepository<Activity, UUID> {
+    String ACTIVITY_ROW_SELECT =
+        "SELECT a.id AS id, a.title AS title, a.description AS description, " +
+        "a.startTime AS startTime, a.endTime AS endTime, a.location AS location, " +
+        "a.cost AS cost, a.category AS category, a.bookingUrl AS bookingUrl, " +
+        "a.notes AS notes, a.isCompleted AS isCompleted, a.dayPlan.id AS dayPlanId, " +
+        "a.createdAt AS createdAt, a.updatedAt AS updatedAt, a.version AS version, " +
+        "tag.id AS tagId, tag.name AS tagName, tag.color AS tagColor " +
+        "FROM Activity a LEFT JOIN a.tags tag ";
+
     List<Activity> findByDayPlanOrderByStartTimeAsc(DayPlan dayPlan);
     
     @Query("SELECT SUM(a.cost) FROM Activity a WHERE a.dayPlan.trip.id = :tripId")
@@ -20,4 +35,26 @@ public interface ActivityRepository extends JpaRepository<Activity, UUID> {
     
     @Query("SELECT a FROM Activity a WHERE a.dayPlan.trip.id = :tripId AND a.cost IS NOT NULL")
     List<Activity> findActivitiesWithCostByTripId(@Param("tripId") UUID tripId);
+
+    @Query(ACTIVITY_ROW_SELECT + "WHERE a.dayPlan.id = :dayPlanId ORDER BY a.startTime ASC, a.id ASC")
+    List<ActivityRow> findRowsByDayPlanId(@Param("dayPlanId") UUID dayPlanId);
+
+    @Query(ACTIVITY_ROW_SELECT + "WHERE a.id = :activityId")
+    List<ActivityRow> findRowsByActivityId(@Param("activityId") UUID activityId);
+
+    @Query("SELECT a.version FROM Activity a WHERE a.id = :activityId")
+    Optional<Long> findVersionById(@Param("activityId") UUID activityId);
+
+    @Query(ACTIVITY_ROW_SELECT + "JOIN a.dayPlan dp WHERE dp.trip.id = :tripId " +
+           "ORDER BY dp.date ASC, a.startTime ASC, a.id ASC")
+    List<ActivityRow> findRowsByTripId(@Param("tripId") UUID tripId);
+
+    // Backed by a server-side cursor; must be consumed inside a transaction and closed.
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(ACTIVITY_ROW_SELECT + "JOIN a.dayPlan dp WHERE dp.trip.id = :tripId " +
+           "ORDER BY dp.date ASC, a.startTime ASC, a.id ASC")
+    Stream<ActivityRow> streamRowsByTripId(@Param("tripId") UUID tripId);
 }
@@ -1,8 +1,15 @@
 package com.travelplanner.repository;
 
+import com.travelplanner.dto.dayplan.DayPlanResponse;
 import com.travelplanner.entity.DayPlan;
 import com.travelplanner.entity.Trip;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -15,4 +22,22 @@ public interface DayPlanRepository extends JpaRepository<DayPlan, UUID> {
     List<DayPlan> findByTripOrderByDateAsc(Trip trip);
     Optional<DayPlan> findByTripAndDate(Trip trip, LocalDate date);
     List<DayPlan> findByTripAndDateBetween(Trip trip, LocalDate startDate, LocalDate endDate);
+
+    @Query("SELECT new com.travelplanner.dto.dayplan.DayPlanResponse(dp.id, dp.date, dp.notes) " +
+           "FROM DayPlan dp WHERE dp.trip.id = :tripId ORDER BY dp.date ASC")
+    List<DayPlanResponse> findSummariesByTripId(@Param("tripId") UUID tripId);
+
+    // Creates one day plan per calendar day in a single statement; days that
+    // already exist are left untouched, so it is safe to call repeatedly.
+    // The declared query space stops Hibernate from clearing every
+    // second-level cache region after this native statement.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "day_plans"))
+    @Query(value = "INSERT INTO day_plans (trip_id, date) " +
+                   "SELECT :tripId, CAST(d AS DATE) " +
+                   "FROM generate_series(CAST(:startDate AS DATE), CAST(:endDate AS DATE), INTERVAL '1 day') d " +
+                   "ON CONFLICT (trip_id, date) DO NOTHING", nativeQuery = true)
+    int insertMissingDays(@Param("tripId") UUID tripId,
+                          @Param("startDate") LocalDate startDate,
+                          @Param("endDate") LocalDate endDate);
 }
@@ -4,8 +4,11 @@ import com.travelplanner.entity.Trip;
 import com.travelplanner.entity.TripMember;
 import com.travelplanner.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,4 +19,10 @@ public interface TripMemberRepository extends JpaRepository<TripMember, UUID> {
     List<TripMember> findByUser(User user);
     Optional<TripMember> findByTripAndUser(Trip trip, User user);
     boolean existsByTripAndUser(Trip trip, User user);
+
+    // Every user who sees the trips; the owner is normally also a member row
+    // but is not required to be
+    @Query("SELECT tm.user.id FROM TripMember tm WHERE tm.trip.id IN :tripIds " +
+           "UNION SELECT t.user.id FROM Trip t WHERE t.id IN :tripIds")
+    List<UUID> findUserIdsByTripIds(@Param("tripIds") Collection<UUID> tripIds);
 }
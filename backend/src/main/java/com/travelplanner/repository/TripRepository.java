@@ -2,6 +2,9 @@ package com.travelplanner.repository;
 
 import com.travelplanner.entity.Trip;
 import com.travelplanner.entity.User;
+import com.travelplanner.repository.projection.TripAccessRow;
+import com.travelplanner.repository.projection.TripSummary;
+import com.travelplanner.repository.projection.TripTag;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,11 +13,41 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface TripRepository extends JpaRepository<Trip, UUID> {
+    String TRIP_SUMMARY_SELECT =
+        "SELECT t.id AS id, t.title AS title, t.description AS description, " +
+        "t.startDate AS startDate, t.endDate AS endDate, t.destination AS destination, " +
+        "t.budget AS budget, t.isPublic AS isPublic, t.coverImageUrl AS coverImageUrl, " +
+        "t.createdAt AS createdAt, t.updatedAt AS updatedAt, t.version AS version, " +
+        "u.id AS ownerId, u.firstName AS ownerFirstName, u.lastName AS ownerLastName, " +
+        "u.email AS ownerEmail, u.profilePictureUrl AS ownerProfilePictureUrl, " +
+        "(SELECT COUNT(tm) FROM TripMember tm WHERE tm.trip = t) AS memberCount " +
+        "FROM Trip t JOIN t.user u ";
+
+    String TRIP_ACCESS_SELECT =
+        "SELECT t.id AS tripId, t.user.id AS ownerId, t.isPublic AS isPublic, " +
+        "tm.role AS memberRole, tm.canEdit AS canEdit, tm.canInvite AS canInvite ";
+
+    String USER_OR_MEMBER_FILTER =
+        "(u.id = :userId OR EXISTS (SELECT 1 FROM TripMember tm WHERE tm.trip = t AND tm.user.id = :userId)) ";
+
+    // Equivalent to (t.startDate, t.id) < (:startDate, :id); the leading bound
+    // keeps the range scan on the (start_date, id) index
+    String AFTER_CURSOR = "t.startDate <= :startDate AND (t.startDate < :startDate OR t.id < :id) ";
+
+    String KEYSET_ORDER = "ORDER BY t.startDate DESC, t.id DESC";
+
+    String MEMBER_JOIN = "LEFT JOIN TripMember tm ON tm.trip = t AND tm.user.id = :userId ";
+
+    // Trips marked deleted are awaiting an asynchronous purge
+    String NOT_DELETED = "t.deletedAt IS NULL ";
+
     Page<Trip> findByUser(User user, Pageable pageable);
     
     @Query("SELECT t FROM Trip t JOIN t.members tm WHERE tm.user = :user")
@@ -25,5 +58,64 @@ public interface TripRepository extends JpaRepository<Trip, UUID> {
     
     List<Trip> findByUserAndStartDateBetween(User user, LocalDate startDate, LocalDate endDate);
     
-    Page<Trip> findByIsPublicTrueAndTitleContainingIgnoreCase(String title, Pageable pageable);
+    @Query("SELECT t.version FROM Trip t WHERE t.id = :tripId")
+    Optional<Long> findVersionById(@Param("tripId") UUID tripId);
+
+    @Query(TRIP_SUMMARY_SELECT + "WHERE t.id IN :ids")
+    List<TripSummary> findSummariesByIds(@Param("ids") Collection<UUID> ids);
+
+    @Query(value = TRIP_SUMMARY_SELECT + "WHERE " + NOT_DELETED,
+           countQuery = "SELECT COUNT(t) FROM Trip t WHERE " + NOT_DELETED)
+    Page<TripSummary> findAllSummaries(Pageable pageable);
+
+    @Query(value = TRIP_SUMMARY_SELECT + "WHERE " + USER_OR_MEMBER_FILTER + "AND " + NOT_DELETED,
+           countQuery = "SELECT COUNT(t) FROM Trip t JOIN t.user u WHERE " + USER_OR_MEMBER_FILTER + "AND " + NOT_DELETED)
+    Page<TripSummary> findSummariesByUserOrMember(@Param("userId") UUID userId, Pageable pageable);
+
+    // Keyset pagination: the page size is taken from the Pageable, its offset must be 0
+    @Query(TRIP_SUMMARY_SELECT + "WHERE " + USER_OR_MEMBER_FILTER + "AND " + NOT_DELETED + KEYSET_ORDER)
+    List<TripSummary> findFirstSummariesByUserOrMember(@Param("userId") UUID userId, Pageable pageable);
+
+    @Query(TRIP_SUMMARY_SELECT + "WHERE " + USER_OR_MEMBER_FILTER +
+           "AND " + AFTER_CURSOR + "AND " + NOT_DELETED + KEYSET_ORDER)
+    List<TripSummary> findSummariesByUserOrMemberAfter(@Param("userId") UUID userId,
+                                                       @Param("startDate") LocalDate startDate,
+                                                       @Param("id") UUID id,
+                                                       Pageable pageable);
+
+    @Query("SELECT COUNT(t) FROM Trip t JOIN t.user u WHERE " + USER_OR_MEMBER_FILTER + "AND " + NOT_DELETED)
+    long countByUserOrMember(@Param("userId") UUID userId);
+
+    // Fingerprint of everything rendered by the itinerary endpoint. Every table
+    // involved keeps updated_at current through triggers, so comparing ids and
+    // timestamps is enough to tell whether the itinerary changed.
+    @Query(value = "SELECT md5(concat_ws('|', t.updated_at, u.updated_at, " +
+                   "(SELECT COUNT(*) FROM trip_members m WHERE m.trip_id = t.id), " +
+                   "(SELECT string_agg(tg.id || ':' || tg.updated_at, ',' ORDER BY tg.id) " +
+                   " FROM trip_tags tt JOIN tags tg ON tg.id = tt.tag_id WHERE tt.trip_id = t.id), " +
+                   "(SELECT string_agg(dp.id || ':' || dp.updated_at, ',' ORDER BY dp.id) " +
+                   " FROM day_plans dp WHERE dp.trip_id = t.id), " +
+                   "(SELECT string_agg(a.id || ':' || a.updated_at, ',' ORDER BY a.id) " +
+                   " FROM activities a JOIN day_plans dp ON dp.id = a.day_plan_id WHERE dp.trip_id = t.id), " +
+                   "(SELECT string_agg(at.activity_id || ':' || tg.id || ':' || tg.updated_at, ',' " +
+                   "  ORDER BY at.activity_id, tg.id) " +
+                   " FROM activity_tags at JOIN tags tg ON tg.id = at.tag_id " +
+                   " JOIN activities a ON a.id = at.activity_id JOIN day_plans dp ON dp.id = a.day_plan_id " +
+                   " WHERE dp.trip_id = t.id))) " +
+                   "FROM trips t JOIN users u ON u.id = t.user_id WHERE t.id = :tripId",
+           nativeQuery = true)
+    String findItineraryFingerprint(@Param("tripId") UUID tripId);
+
+    @Query("SELECT t.id AS tripId, tag.id AS tagId, tag.name AS name, tag.color AS color " +
+           "FROM Trip t JOIN t.tags tag WHERE t.id IN :tripIds")
+    List<TripTag> findTagsByTripIds(@Param("tripIds") Collection<UUID> tripIds);
+
+    @Query(TRIP_ACCESS_SELECT + "FROM Trip t " + MEMBER_JOIN + "WHERE t.id = :tripId AND " + NOT_DELETED)
+    Optional<TripAccessRow> findAccessByTripId(@Param("tripId") UUID tripId, @Param("userId") UUID userId);
+
+    @Query(TRIP_ACCESS_SELECT + "FROM DayPlan dp JOIN dp.trip t " + MEMBER_JOIN + "WHERE dp.id = :dayPlanId AND " + NOT_DELETED)
+    Optional<TripAccessRow> findAccessByDayPlanId(@Param("dayPlanId") UUID dayPlanId, @Param("userId") UUID userId);
+
+    @Query(TRIP_ACCESS_SELECT + "FROM Activity a JOIN a.dayPlan dp JOIN dp.trip t " + MEMBER_JOIN + "WHERE a.id = :activityId AND " + NOT_DELETED)
+    Optional<TripAccessRow> findAccessByActivityId(@Param("activityId") UUID activityId, @Param("userId") UUID userId);
 }
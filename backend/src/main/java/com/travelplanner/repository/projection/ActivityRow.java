@@ -0,0 +1,33 @@
+package com.travelplanner.repository.projection;
+
+import com.travelplanner.entity.Activity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * One row per (activity, tag) pair; activities without tags produce a single
+ * row with null tag columns. Rows of the same activity are always adjacent.
+ */
+public interface ActivityRow {
+    UUID getId();
+    String getTitle();
+    String getDescription();
+    LocalTime getStartTime();
+    LocalTime getEndTime();
+    String getLocation();
+    BigDecimal getCost();
+    Activity.ActivityCategory getCategory();
+    String getBookingUrl();
+    String getNotes();
+    Boolean getIsCompleted();
+    UUID getDayPlanId();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+    Long getVersion();
+    UUID getTagId();
+    String getTagName();
+    String getTagColor();
+}
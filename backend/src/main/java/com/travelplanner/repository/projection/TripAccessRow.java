@@ -0,0 +1,18 @@
+package com.travelplanner.repository.projection;
+
+import com.travelplanner.entity.TripMember;
+
+import java.util.UUID;
+
+/**
+ * A trip's owner and visibility together with the requesting user's
+ * membership row, if any.
+ */
+public interface TripAccessRow {
+    UUID getTripId();
+    UUID getOwnerId();
+    Boolean getIsPublic();
+    TripMember.MemberRole getMemberRole();
+    Boolean getCanEdit();
+    Boolean getCanInvite();
+}
@@ -0,0 +1,31 @@
+package com.travelplanner.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Flat view of a trip row with its owner and member count, used by the trip
+ * listings so that no Trip entity or lazy collection is loaded per row.
+ */
+public interface TripSummary {
+    UUID getId();
+    String getTitle();
+    String getDescription();
+    LocalDate getStartDate();
+    LocalDate getEndDate();
+    String getDestination();
+    BigDecimal getBudget();
+    Boolean getIsPublic();
+    String getCoverImageUrl();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+    Long getVersion();
+    UUID getOwnerId();
+    String getOwnerFirstName();
+    String getOwnerLastName();
+    String getOwnerEmail();
+    String getOwnerProfilePictureUrl();
+    Long getMemberCount();
+}
@@ -0,0 +1,10 @@
+package com.travelplanner.repository.projection;
+
+import java.util.UUID;
+
+public interface TripTag {
+    UUID getTripId();
+    UUID getTagId();
+    String getName();
+    String getColor();
+}
@@ -0,0 +1,113 @@
+package com.travelplanner.security;
+
+import com.travelplanner.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bounded, expiring cache of already verified tokens and the principal they
+ * resolved to, so repeat requests with the same token skip signature
+ * verification and the users table. Entries are keyed by a SHA-256 hash of the
+ * token and never outlive the token itself.
+ *
+ * The cache holds an immutable snapshot of the user, not the entity: every hit
+ * gets a detached User of its own, so a request that modifies its principal
+ * cannot leak the change into other requests. The password hash is not kept.
+ */
+@Component
+public class JwtPrincipalCache {
+
+    private final long ttlMs;
+
+    private final Map<String, Entry> entries;
+
+    public JwtPrincipalCache(@Value("${jwt.cache.max-size:10000}") int maxSize,
+                             @Value("${jwt.cache.ttl:300000}") long ttlMs) {
+        this.ttlMs = ttlMs;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public User get(String token) {
+        String key = hash(token);
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() <= System.currentTimeMillis()) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.principal().toUser();
+        }
+    }
+
+    public void put(String token, User user, Date tokenExpiration) {
+        long expiresAt = System.currentTimeMillis() + ttlMs;
+        if (tokenExpiration != null) {
+            expiresAt = Math.min(expiresAt, tokenExpiration.getTime());
+        }
+        String key = hash(token);
+        synchronized (entries) {
+            entries.put(key, new Entry(Principal.of(user), expiresAt));
+        }
+    }
+
+    public void evictPrincipal(User user) {
+        synchronized (entries) {
+            entries.values().removeIf(entry -> entry.principal().id().equals(user.getId()));
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record Entry(Principal principal, long expiresAt) {}
+
+    private record Principal(UUID id, String firstName, String lastName, String email, String profilePictureUrl,
+                             Boolean isActive, User.Role role, LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+        static Principal of(User user) {
+            return new Principal(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(),
+                user.getProfilePictureUrl(), user.getIsActive(), user.getRole(), user.getCreatedAt(), user.getUpdatedAt());
+        }
+
+        User toUser() {
+            User user = new User(firstName, lastName, email, null);
+            user.setId(id);
+            user.setProfilePictureUrl(profilePictureUrl);
+            user.setIsActive(isActive);
+            user.setRole(role);
+            user.setCreatedAt(createdAt);
+            user.setUpdatedAt(updatedAt);
+            return user;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.travelplanner.security;
+
+import com.travelplanner.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops cached principals whenever a user row changes, so deactivations, role
+ * changes and deletions take effect on the next request.
+ */
+@Component
+public class UserPrincipalCacheListener {
+
+    @Autowired
+    private JwtPrincipalCache principalCache;
+
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        principalCache.evictPrincipal(user);
+    }
+}
@@ -0,0 +1,100 @@
+package com.travelplanner.service;
+
+import com.travelplanner.dto.activity.ActivityConflictResponse;
+import com.travelplanner.entity.Activity;
+import com.travelplanner.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Finds activities whose time slots overlap. activities.time_slot (V7) holds
+ * each timed activity's absolute slot; an end time before the start time runs
+ * into the next day, so a day can clash with the evening before it.
+ *
+ * Both checks run in the database on the GiST index on (day_plan_id,
+ * time_slot): a single activity probes its own and the neighbouring days, and
+ * for whole trips every activity probes its own and the next day.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ActivityConflictService {
+
+    private static final String CONFLICTS_WITH_SQL =
+        "SELECT a.id, a.title, " +
+        "GREATEST(lower(a.time_slot), ?) AS overlap_start, LEAST(upper(a.time_slot), ?) AS overlap_end " +
+        "FROM day_plans dp JOIN activities a ON a.day_plan_id = dp.id AND a.time_slot && tsrange(?, ?) " +
+        "WHERE dp.trip_id = ? AND dp.date BETWEEN ? AND ? AND a.id IS DISTINCT FROM ? " +
+        "ORDER BY overlap_start, a.id";
+
+    // Each pair is reported once: ordered by id within a day, and from the
+    // earlier day when an activity runs past midnight
+    private static final String TRIP_CONFLICTS_SQL =
+        "SELECT a.id AS activity_id, a.title AS activity_title, " +
+        "b.id AS conflicting_id, b.title AS conflicting_title, " +
+        "GREATEST(lower(a.time_slot), lower(b.time_slot)) AS overlap_start, " +
+        "LEAST(upper(a.time_slot), upper(b.time_slot)) AS overlap_end " +
+        "FROM day_plans dpa " +
+        "JOIN activities a ON a.day_plan_id = dpa.id AND a.time_slot IS NOT NULL " +
+        "JOIN day_plans dpb ON dpb.trip_id = dpa.trip_id AND dpb.date BETWEEN dpa.date AND dpa.date + 1 " +
+        "JOIN activities b ON b.day_plan_id = dpb.id AND b.time_slot && a.time_slot AND b.id <> a.id " +
+        "WHERE dpa.trip_id = ? AND (dpb.date > dpa.date OR a.id < b.id) " +
+        "ORDER BY overlap_start, a.id, b.id";
+
+    @Autowired
+    private TripAccessService tripAccessService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Other activities overlapping this one. Runs on the stored slots of the
+    // others, so the activity itself need not be flushed yet.
+    public List<ActivityConflictResponse> findConflicts(Activity activity) {
+        if (activity.getStartTime() == null || activity.getEndTime() == null) {
+            return List.of();
+        }
+        LocalDate date = activity.getDayPlan().getDate();
+        LocalDateTime start = date.atTime(activity.getStartTime());
+        LocalDateTime end = date.atTime(activity.getEndTime());
+        if (end.isBefore(start)) {
+            end = end.plusDays(1);
+        }
+
+        return jdbcTemplate.query(CONFLICTS_WITH_SQL,
+            (rs, rowNum) -> new ActivityConflictResponse(
+                activity.getId(), activity.getTitle(),
+                rs.getObject("id", UUID.class), rs.getString("title"),
+                rs.getObject("overlap_start", LocalDateTime.class),
+                rs.getObject("overlap_end", LocalDateTime.class)
+            ),
+            start, end, start, end,
+            activity.getDayPlan().getTrip().getId(), date.minusDays(1), date.plusDays(1), activity.getId());
+    }
+
+    public List<ActivityConflictResponse> findTripConflicts(UUID tripId, User user) {
+        TripAccess access = tripAccessService.forTrip(tripId, user)
+            .orElseThrow(() -> new RuntimeException("Trip not found"));
+
+        if (!access.canView()) {
+            throw new AccessDeniedException("You don't have access to this trip");
+        }
+
+        return jdbcTemplate.query(TRIP_CONFLICTS_SQL,
+            (rs, rowNum) -> new ActivityConflictResponse(
+                rs.getObject("activity_id", UUID.class),
+                rs.getString("activity_title"),
+                rs.getObject("conflicting_id", UUID.class),
+                rs.getString("conflicting_title"),
+                rs.getObject("overlap_start", LocalDateTime.class),
+                rs.getObject("overlap_end", LocalDateTime.class)
+            ),
+            tripId);
+    }
+}
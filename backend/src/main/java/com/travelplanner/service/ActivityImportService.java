@@ -0,0 +1,203 @@
+package com.travelplanner.service;
+
+import com.travelplanner.dto.activity.ActivityBulkImportRequest;
+import com.travelplanner.dto.activity.ActivityBulkImportResponse;
+import com.travelplanner.dto.activity.ActivityCreateRequest;
+import com.travelplanner.dto.dayplan.DayPlanResponse;
+import com.travelplanner.entity.Tag;
+import com.travelplanner.entity.Trip;
+import com.travelplanner.entity.User;
+import com.travelplanner.repository.DayPlanRepository;
+import com.travelplanner.repository.TripRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Imports a whole trip's worth of activities in one transaction. Permissions
+ * are checked once, every tag name in the batch is resolved together, and the
+ * activity and activity_tags rows are written with JDBC batches. Activities
+ * that fail validation are reported back and skipped instead of failing the
+ * whole import.
+ */
+@Service
+@Transactional
+public class ActivityImportService {
+
+    private static final String INSERT_ACTIVITY_SQL =
+        "INSERT INTO activities (id, title, description, start_time, end_time, location, cost, category, " +
+        "booking_url, notes, day_plan_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ACTIVITY_TAG_SQL =
+        "INSERT INTO activity_tags (activity_id, tag_id) VALUES (?, ?)";
+
+    @Autowired
+    private TripAccessService tripAccessService;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private DayPlanRepository dayPlanRepository;
+
+    @Autowired
+    private TagResolver tagResolver;
+
+    @Autowired
+    private CostRollupService costRollupService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${activities.bulk-import.max-size:10000}")
+    private int maxImportSize;
+
+    @Value("${activities.bulk-import.batch-size:500}")
+    private int batchSize;
+
+    public ActivityBulkImportResponse importActivities(UUID tripId, ActivityBulkImportRequest request, User user) {
+        TripAccess access = tripAccessService.forTrip(tripId, user)
+            .orElseThrow(() -> new RuntimeException("Trip not found"));
+
+        if (!access.canEdit()) {
+            throw new AccessDeniedException("You don't have permission to add activities to this trip");
+        }
+
+        int total = request.getActivitiesByDate().values().stream().mapToInt(v -> v == null ? 0 : v.size()).sum();
+        if (total > maxImportSize) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                "At most " + maxImportSize + " activities can be imported at once");
+        }
+
+        Trip trip = tripRepository.findById(tripId)
+            .orElseThrow(() -> new RuntimeException("Trip not found"));
+
+        ActivityBulkImportResponse response = new ActivityBulkImportResponse();
+        Map<LocalDate, List<ActivityCreateRequest>> accepted = new HashMap<>();
+        Set<String> tagNames = new HashSet<>();
+        for (Map.Entry<LocalDate, List<ActivityCreateRequest>> day : request.getActivitiesByDate().entrySet()) {
+            LocalDate date = day.getKey();
+            List<ActivityCreateRequest> activities = day.getValue() != null ? day.getValue() : List.of();
+            boolean inTrip = !date.isBefore(trip.getStartDate()) && !date.isAfter(trip.getEndDate());
+            for (int i = 0; i < activities.size(); i++) {
+                ActivityCreateRequest activity = activities.get(i);
+                String error = !inTrip ? "Date is outside the trip" : validate(activity);
+                if (error != null) {
+                    response.getFailures().add(new ActivityBulkImportResponse.Failure(date, i, error));
+                    continue;
+                }
+                accepted.computeIfAbsent(date, d -> new ArrayList<>()).add(activity);
+                if (activity.getTagNames() != null) {
+                    tagNames.addAll(activity.getTagNames());
+                }
+            }
+        }
+        if (accepted.isEmpty()) {
+            return response;
+        }
+
+        Map<LocalDate, UUID> dayPlanIds = resolveDayPlans(trip);
+        Map<String, UUID> tagIds = new HashMap<>();
+        for (Tag tag : tagResolver.resolve(tagNames)) {
+            tagIds.put(tag.getName(), tag.getId());
+        }
+
+        List<Object[]> activityRows = new ArrayList<>();
+        List<Object[]> tagRows = new ArrayList<>();
+        for (Map.Entry<LocalDate, List<ActivityCreateRequest>> day : accepted.entrySet()) {
+            UUID dayPlanId = dayPlanIds.get(day.getKey());
+            for (ActivityCreateRequest activity : day.getValue()) {
+                UUID activityId = UUID.randomUUID();
+                activityRows.add(new Object[] {
+                    activityId,
+                    activity.getTitle(),
+                    activity.getDescription(),
+                    activity.getStartTime(),
+                    activity.getEndTime(),
+                    activity.getLocation(),
+                    activity.getCost(),
+                    activity.getCategory() != null ? activity.getCategory().name() : null,
+                    activity.getBookingUrl(),
+                    activity.getNotes(),
+                    dayPlanId
+                });
+                if (activity.getTagNames() != null) {
+                    for (String tagName : new HashSet<>(activity.getTagNames())) {
+                        UUID tagId = tagIds.get(tagName);
+                        if (tagId != null) {
+                            tagRows.add(new Object[] { activityId, tagId });
+                        }
+                    }
+                }
+            }
+        }
+
+        batchInsert(INSERT_ACTIVITY_SQL, activityRows);
+        batchInsert(INSERT_ACTIVITY_TAG_SQL, tagRows);
+
+        // One aggregate over the trip is cheaper than a rollup delta per activity
+        costRollupService.rebuild(tripId);
+        eventPublisher.publishEvent(new TripChangedEvent(tripId, user.getId()));
+
+        response.setImported(activityRows.size());
+        return response;
+    }
+
+    // The constraints on ActivityCreateRequest mirror the column limits (title,
+    // location, bookingUrl, tag names, cost), so an out-of-range value fails
+    // its own row here rather than the tag upsert or the whole batch insert
+    private String validate(ActivityCreateRequest activity) {
+        if (activity == null) {
+            return "Activity is empty";
+        }
+        Set<ConstraintViolation<ActivityCreateRequest>> violations = validator.validate(activity);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+            .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+            .sorted()
+            .collect(Collectors.joining(", "));
+    }
+
+    private Map<LocalDate, UUID> resolveDayPlans(Trip trip) {
+        // No-op for trips whose day plans were created up front
+        dayPlanRepository.insertMissingDays(trip.getId(), trip.getStartDate(), trip.getEndDate());
+
+        Map<LocalDate, UUID> dayPlanIds = new HashMap<>();
+        for (DayPlanResponse dayPlan : dayPlanRepository.findSummariesByTripId(trip.getId())) {
+            dayPlanIds.put(dayPlan.getDate(), dayPlan.getId());
+        }
+        return dayPlanIds;
+    }
+
+    private void batchInsert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + batchSize, rows.size())));
+        }
+    }
+}
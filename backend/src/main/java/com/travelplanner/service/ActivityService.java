@@ -1,23 +1,53 @@
 package com.travelplanner.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.travelplanner.dto.activity.ActivityCreateRequest;
+import com.travelplanner.dto.activity.ActivityResponse;
+import com.travelplanner.dto.tag.TagResponse;
 import com.travelplanner.entity.*;
 import com.travelplanner.repository.*;
+import com.travelplanner.repository.projection.ActivityRow;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.util.HashSet;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class ActivityService {
 
+    // Flips (or sets) the flag and bumps the version in one statement. The join
+    // to trips repeats TripAccess.canView, so a row is only returned when the
+    // caller may see the trip, and the tags are read back in the same round trip.
+    private static final String TOGGLE_COMPLETION_SQL =
+        "WITH toggled AS (" +
+        "UPDATE activities a SET is_completed = COALESCE(CAST(? AS boolean), NOT a.is_completed), version = a.version + 1 " +
+        "FROM day_plans dp JOIN trips t ON t.id = dp.trip_id " +
+        "WHERE a.id = ? AND dp.id = a.day_plan_id AND t.deleted_at IS NULL AND (CAST(? AS bigint) IS NULL OR a.version = ?) " +
+        "AND (t.is_public OR t.user_id = ? " +
+        "OR EXISTS (SELECT 1 FROM trip_members m WHERE m.trip_id = t.id AND m.user_id = ?)) " +
+        "RETURNING a.*) " +
+        "SELECT toggled.*, tg.id AS tag_id, tg.name AS tag_name, tg.color AS tag_color FROM toggled " +
+        "LEFT JOIN activity_tags at ON at.activity_id = toggled.id " +
+        "LEFT JOIN tags tg ON tg.id = at.tag_id";
+
     @Autowired
     private ActivityRepository activityRepository;
 
@@ -25,19 +55,37 @@ public class ActivityService {
     private DayPlanRepository dayPlanRepository;
 
     @Autowired
-    private TripMemberRepository tripMemberRepository;
+    private TripAccessService tripAccessService;
 
     @Autowired
-    private TagRepository tagRepository;
+    private TagResolver tagResolver;
 
-    public Activity createActivity(UUID dayPlanId, ActivityCreateRequest request, User user) {
-        DayPlan dayPlan = dayPlanRepository.findById(dayPlanId)
+    @Autowired
+    private CostRollupService costRollupService;
+
+    @Autowired
+    private ActivityConflictService activityConflictService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public ActivityResponse createActivity(UUID dayPlanId, ActivityCreateRequest request, User user) {
+        TripAccess access = tripAccessService.forDayPlan(dayPlanId, user)
             .orElseThrow(() -> new RuntimeException("Day plan not found"));
 
-        if (!canEditTrip(dayPlan.getTrip(), user)) {
+        if (!access.canEdit()) {
             throw new AccessDeniedException("You don't have permission to add activities to this trip");
         }
 
+        DayPlan dayPlan = dayPlanRepository.findById(dayPlanId)
+            .orElseThrow(() -> new RuntimeException("Day plan not found"));
+
         Activity activity = new Activity();
         activity.setTitle(request.getTitle());
         activity.setDescription(request.getDescription());
@@ -52,37 +100,103 @@ public class ActivityService {
 
         // Handle tags
         if (request.getTagNames() != null && !request.getTagNames().isEmpty()) {
-            Set<Tag> tags = new HashSet<>();
-            for (String tagName : request.getTagNames()) {
-                Tag tag = tagRepository.findByName(tagName)
-                    .orElseGet(() -> tagRepository.save(new Tag(tagName)));
-                tags.add(tag);
-            }
-            activity.setTags(tags);
+            activity.setTags(tagResolver.resolve(request.getTagNames()));
         }
 
-        return activityRepository.save(activity);
+        activity = activityRepository.save(activity);
+        costRollupService.add(costRollupService.contributionOf(activity));
+        eventPublisher.publishEvent(new TripChangedEvent(access.getTripId(), user.getId()));
+        return withConflicts(convertToActivityResponse(activity), activity);
     }
 
-    public List<Activity> getActivitiesByDayPlan(UUID dayPlanId, User user) {
-        DayPlan dayPlan = dayPlanRepository.findById(dayPlanId)
+    @Transactional(readOnly = true)
+    public List<ActivityResponse> getActivitiesByDayPlan(UUID dayPlanId, User user) {
+        TripAccess access = tripAccessService.forDayPlan(dayPlanId, user)
             .orElseThrow(() -> new RuntimeException("Day plan not found"));
 
-        if (!hasAccessToTrip(dayPlan.getTrip(), user)) {
+        if (!access.canView()) {
             throw new AccessDeniedException("You don't have access to this trip");
         }
 
-        return activityRepository.findByDayPlanOrderByStartTimeAsc(dayPlan);
+        return groupRows(activityRepository.findRowsByDayPlanId(dayPlanId).iterator());
     }
 
-    public Activity updateActivity(UUID activityId, ActivityCreateRequest request, User user) {
-        Activity activity = activityRepository.findById(activityId)
+    @Transactional(readOnly = true)
+    public Optional<ActivityResponse> getActivity(UUID activityId, User user) {
+        if (!canViewActivity(activityId, user)) {
+            return Optional.empty();
+        }
+        List<ActivityResponse> activities = groupRows(activityRepository.findRowsByActivityId(activityId).iterator());
+        return activities.stream().findFirst();
+    }
+
+    // Current version of the activity for conditional GETs, checked before
+    // anything else is loaded
+    @Transactional(readOnly = true)
+    public Optional<Long> getActivityVersion(UUID activityId, User user) {
+        if (!canViewActivity(activityId, user)) {
+            return Optional.empty();
+        }
+        return activityRepository.findVersionById(activityId);
+    }
+
+    @Transactional(readOnly = true)
+    public void verifyTripAccess(UUID tripId, User user) {
+        TripAccess access = tripAccessService.forTrip(tripId, user)
+            .orElseThrow(() -> new RuntimeException("Trip not found"));
+
+        if (!access.canView()) {
+            throw new AccessDeniedException("You don't have access to this trip");
+        }
+    }
+
+    // All activities of the trip ordered by day and start time, read with one
+    // query. Callers must run verifyTripAccess first.
+    @Transactional(readOnly = true)
+    public List<ActivityResponse> getTripActivities(UUID tripId) {
+        return groupRows(activityRepository.findRowsByTripId(tripId).iterator());
+    }
+
+    // Writes every activity of the trip as one JSON document per line while the
+    // cursor is being read, so only the activity currently being assembled is
+    // held in memory. Callers must run verifyTripAccess first.
+    @Transactional(readOnly = true)
+    public void writeTripActivities(UUID tripId, OutputStream out) throws IOException {
+        try (Stream<ActivityRow> rows = activityRepository.streamRowsByTripId(tripId)) {
+            Iterator<ActivityRow> iterator = rows.iterator();
+            ActivityResponse current = null;
+            while (iterator.hasNext()) {
+                ActivityRow row = iterator.next();
+                if (current == null || !current.getId().equals(row.getId())) {
+                    if (current != null) {
+                        writeLine(out, current);
+                    }
+                    current = convertToActivityResponse(row);
+                }
+                addTag(current, row);
+            }
+            if (current != null) {
+                writeLine(out, current);
+            }
+        }
+        out.flush();
+    }
+
+    public ActivityResponse updateActivity(UUID activityId, ActivityCreateRequest request, User user,
+                                           Long expectedVersion) {
+        TripAccess access = tripAccessService.forActivity(activityId, user)
             .orElseThrow(() -> new RuntimeException("Activity not found"));
 
-        if (!canEditTrip(activity.getDayPlan().getTrip(), user)) {
+        if (!access.canEdit()) {
             throw new AccessDeniedException("You don't have permission to edit this activity");
         }
 
+        Activity activity = activityRepository.findById(activityId)
+            .orElseThrow(() -> new RuntimeException("Activity not found"));
+        verifyVersion(activity.getVersion(), expectedVersion);
+
+        CostRollupService.Contribution before = costRollupService.contributionOf(activity);
+
         activity.setTitle(request.getTitle());
         activity.setDescription(request.getDescription());
         activity.setStartTime(request.getStartTime());
@@ -95,56 +209,179 @@ public class ActivityService {
 
         // Handle tags
         if (request.getTagNames() != null) {
-            Set<Tag> tags = new HashSet<>();
-            for (String tagName : request.getTagNames()) {
-                Tag tag = tagRepository.findByName(tagName)
-                    .orElseGet(() -> tagRepository.save(new Tag(tagName)));
-                tags.add(tag);
-            }
-            activity.setTags(tags);
+            activity.setTags(tagResolver.resolve(request.getTagNames()));
         }
 
-        return activityRepository.save(activity);
+        // Flush so the response carries the incremented version
+        activity = activityRepository.saveAndFlush(activity);
+        costRollupService.replace(before, costRollupService.contributionOf(activity));
+        eventPublisher.publishEvent(new TripChangedEvent(access.getTripId(), user.getId()));
+        return withConflicts(convertToActivityResponse(activity), activity);
     }
 
-    public void deleteActivity(UUID activityId, User user) {
-        Activity activity = activityRepository.findById(activityId)
+    public void deleteActivity(UUID activityId, User user, Long expectedVersion) {
+        TripAccess access = tripAccessService.forActivity(activityId, user)
             .orElseThrow(() -> new RuntimeException("Activity not found"));
 
-        if (!canEditTrip(activity.getDayPlan().getTrip(), user)) {
+        if (!access.canEdit()) {
             throw new AccessDeniedException("You don't have permission to delete this activity");
         }
 
+        Activity activity = activityRepository.findById(activityId)
+            .orElseThrow(() -> new RuntimeException("Activity not found"));
+        verifyVersion(activity.getVersion(), expectedVersion);
+
+        CostRollupService.Contribution contribution = costRollupService.contributionOf(activity);
         activityRepository.delete(activity);
+        costRollupService.remove(contribution);
+        eventPublisher.publishEvent(new TripChangedEvent(access.getTripId(), user.getId()));
     }
 
-    public Activity toggleActivityCompletion(UUID activityId, User user) {
-        Activity activity = activityRepository.findById(activityId)
-            .orElseThrow(() -> new RuntimeException("Activity not found"));
+    // Passing completed sets the flag explicitly, which is idempotent for
+    // clients that retry; null flips the stored value.
+    public ActivityResponse toggleActivityCompletion(UUID activityId, User user, Boolean completed,
+                                                     Long expectedVersion) {
+        UUID userId = user != null ? user.getId() : null;
+        List<ActivityResponse> toggled = jdbcTemplate.query(TOGGLE_COMPLETION_SQL, rs -> {
+            List<ActivityResponse> activities = new ArrayList<>();
+            ActivityResponse current = null;
+            while (rs.next()) {
+                if (current == null) {
+                    current = convertToActivityResponse(rs);
+                    activities.add(current);
+                }
+                UUID tagId = rs.getObject("tag_id", UUID.class);
+                if (tagId != null) {
+                    current.getTags().add(new TagResponse(tagId, rs.getString("tag_name"), rs.getString("tag_color")));
+                }
+            }
+            return activities;
+        }, completed, activityId, expectedVersion, expectedVersion, userId, userId);
 
-        if (!hasAccessToTrip(activity.getDayPlan().getTrip(), user)) {
+        if (toggled.isEmpty()) {
+            // Nothing was updated; work out why only on this slow path
+            TripAccess access = tripAccessService.forActivity(activityId, user)
+                .orElseThrow(() -> new RuntimeException("Activity not found"));
+            if (!access.canView()) {
+                throw new AccessDeniedException("You don't have access to this trip");
+            }
+            if (expectedVersion != null) {
+                throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Activity has been modified");
+            }
+            throw new RuntimeException("Activity not found");
+        }
+        return toggled.get(0);
+    }
+
+    private boolean canViewActivity(UUID activityId, User user) {
+        Optional<TripAccess> access = tripAccessService.forActivity(activityId, user);
+        if (access.isEmpty()) {
+            return false;
+        }
+        if (!access.get().canView()) {
             throw new AccessDeniedException("You don't have access to this trip");
         }
+        return true;
+    }
+
+    private void verifyVersion(Long currentVersion, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Activity has been modified");
+        }
+    }
+
+    // Overlaps are reported, not rejected: back to back bookings are often deliberate
+    private ActivityResponse withConflicts(ActivityResponse response, Activity activity) {
+        response.setConflicts(activityConflictService.findConflicts(activity));
+        return response;
+    }
 
-        activity.setIsCompleted(!activity.getIsCompleted());
-        return activityRepository.save(activity);
+    private void writeLine(OutputStream out, ActivityResponse activity) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(activity));
+        out.write('\n');
     }
 
-    private boolean hasAccessToTrip(Trip trip, User user) {
-        if (trip.getUser().getId().equals(user.getId())) {
-            return true;
+    private List<ActivityResponse> groupRows(Iterator<ActivityRow> rows) {
+        List<ActivityResponse> activities = new ArrayList<>();
+        ActivityResponse current = null;
+        while (rows.hasNext()) {
+            ActivityRow row = rows.next();
+            if (current == null || !current.getId().equals(row.getId())) {
+                current = convertToActivityResponse(row);
+                activities.add(current);
+            }
+            addTag(current, row);
         }
-        if (trip.getIsPublic()) {
-            return true;
+        return activities;
+    }
+
+    private void addTag(ActivityResponse activity, ActivityRow row) {
+        if (row.getTagId() != null) {
+            activity.getTags().add(new TagResponse(row.getTagId(), row.getTagName(), row.getTagColor()));
         }
-        return tripMemberRepository.existsByTripAndUser(trip, user);
     }
 
-    private boolean canEditTrip(Trip trip, User user) {
-        if (trip.getUser().getId().equals(user.getId())) {
-            return true;
+    private ActivityResponse convertToActivityResponse(ActivityRow row) {
+        ActivityResponse response = new ActivityResponse();
+        response.setId(row.getId());
+        response.setTitle(row.getTitle());
+        response.setDescription(row.getDescription());
+        response.setStartTime(row.getStartTime());
+        response.setEndTime(row.getEndTime());
+        response.setLocation(row.getLocation());
+        response.setCost(row.getCost());
+        response.setCategory(row.getCategory());
+        response.setBookingUrl(row.getBookingUrl());
+        response.setNotes(row.getNotes());
+        response.setIsCompleted(row.getIsCompleted());
+        response.setDayPlanId(row.getDayPlanId());
+        response.setCreatedAt(row.getCreatedAt());
+        response.setUpdatedAt(row.getUpdatedAt());
+        response.setVersion(row.getVersion());
+        return response;
+    }
+
+    private ActivityResponse convertToActivityResponse(ResultSet rs) throws SQLException {
+        ActivityResponse response = new ActivityResponse();
+        response.setId(rs.getObject("id", UUID.class));
+        response.setTitle(rs.getString("title"));
+        response.setDescription(rs.getString("description"));
+        response.setStartTime(rs.getObject("start_time", LocalTime.class));
+        response.setEndTime(rs.getObject("end_time", LocalTime.class));
+        response.setLocation(rs.getString("location"));
+        response.setCost(rs.getBigDecimal("cost"));
+        String category = rs.getString("category");
+        response.setCategory(category != null ? Activity.ActivityCategory.valueOf(category) : null);
+        response.setBookingUrl(rs.getString("booking_url"));
+        response.setNotes(rs.getString("notes"));
+        response.setIsCompleted(rs.getBoolean("is_completed"));
+        response.setDayPlanId(rs.getObject("day_plan_id", UUID.class));
+        response.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        response.setUpdatedAt(rs.getObject("updated_at", LocalDateTime.class));
+        response.setVersion(rs.getLong("version"));
+        return response;
+    }
+
+    private ActivityResponse convertToActivityResponse(Activity activity) {
+        ActivityResponse response = new ActivityResponse();
+        response.setId(activity.getId());
+        response.setTitle(activity.getTitle());
+        response.setDescription(activity.getDescription());
+        response.setStartTime(activity.getStartTime());
+        response.setEndTime(activity.getEndTime());
+        response.setLocation(activity.getLocation());
+        response.setCost(activity.getCost());
+        response.setCategory(activity.getCategory());
+        response.setBookingUrl(activity.getBookingUrl());
+        response.setNotes(activity.getNotes());
+        response.setIsCompleted(activity.getIsCompleted());
+        response.setDayPlanId(activity.getDayPlan().getId());
+        response.setCreatedAt(activity.getCreatedAt());
+        response.setUpdatedAt(activity.getUpdatedAt());
+        response.setVersion(activity.getVersion());
+        for (Tag tag : activity.getTags()) {
+            response.getTags().add(new TagResponse(tag.getId(), tag.getName(), tag.getColor()));
         }
-        Optional<TripMember> memberOpt = tripMemberRepository.findByTripAndUser(trip, user);
-        return memberOpt.isPresent() && memberOpt.get().getCanEdit();
+        return response;
     }
 }
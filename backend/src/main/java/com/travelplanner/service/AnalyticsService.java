@@ -2,11 +2,7 @@ package com.travelplanner.service;
 
 import com.travelplanner.dto.analytics.CostBreakdownResponse;
 import com.travelplanner.entity.Activity;
-import com.travelplanner.entity.Trip;
 import com.travelplanner.entity.User;
-import com.travelplanner.repository.ActivityRepository;
-import com.travelplanner.repository.TripMemberRepository;
-import com.travelplanner.repository.TripRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
@@ -21,67 +17,50 @@ import java.util.UUID;
 public class AnalyticsService {
 
     @Autowired
-    private TripRepository tripRepository;
+    private TripAccessService tripAccessService;
 
     @Autowired
-    private ActivityRepository activityRepository;
-
-    @Autowired
-    private TripMemberRepository tripMemberRepository;
+    private CostRollupService costRollupService;
 
     public CostBreakdownResponse getTripCostBreakdown(UUID tripId, User user) {
-        Trip trip = tripRepository.findById(tripId)
+        TripAccess access = tripAccessService.forTrip(tripId, user)
             .orElseThrow(() -> new RuntimeException("Trip not found"));
 
-        if (!hasAccessToTrip(trip, user)) {
+        if (!access.canView()) {
             throw new AccessDeniedException("You don't have access to this trip");
         }
 
-        List<Activity> activitiesWithCost = activityRepository.findActivitiesWithCostByTripId(tripId);
-        BigDecimal totalCost = activityRepository.getTotalCostByTripId(tripId);
-        
-        if (totalCost == null) {
-            totalCost = BigDecimal.ZERO;
-        }
+        // Read from the incrementally maintained rollups: one row per day and
+        // category, independent of the number of activities in the trip.
+        return summarize(costRollupService.findByTripId(tripId));
+    }
 
-        // Calculate cost by category
+    static CostBreakdownResponse summarize(List<CostRollupService.Rollup> rollups) {
+        BigDecimal totalCost = BigDecimal.ZERO;
+        int totalActivities = 0;
+        int activitiesWithCost = 0;
         Map<Activity.ActivityCategory, BigDecimal> costByCategory = new HashMap<>();
-        for (Activity activity : activitiesWithCost) {
-            if (activity.getCategory() != null && activity.getCost() != null) {
-                costByCategory.merge(activity.getCategory(), activity.getCost(), BigDecimal::add);
-            }
-        }
-
-        // Calculate cost by day
         Map<String, BigDecimal> costByDay = new HashMap<>();
-        for (Activity activity : activitiesWithCost) {
-            if (activity.getCost() != null) {
-                String dayKey = activity.getDayPlan().getDate().toString();
-                costByDay.merge(dayKey, activity.getCost(), BigDecimal::add);
+
+        for (CostRollupService.Rollup rollup : rollups) {
+            totalActivities += rollup.activityCount();
+            if (rollup.costedCount() == 0) {
+                continue;
+            }
+            activitiesWithCost += rollup.costedCount();
+            totalCost = totalCost.add(rollup.totalCost());
+            costByDay.merge(rollup.date().toString(), rollup.totalCost(), BigDecimal::add);
+            if (!CostRollupService.UNCATEGORIZED.equals(rollup.category())) {
+                costByCategory.merge(Activity.ActivityCategory.valueOf(rollup.category()), rollup.totalCost(), BigDecimal::add);
             }
         }
 
-        // Get total activity count for the trip
-        int totalActivities = trip.getDayPlans().stream()
-            .mapToInt(dayPlan -> dayPlan.getActivities().size())
-            .sum();
-
         return new CostBreakdownResponse(
             totalCost,
             costByCategory,
             costByDay,
             totalActivities,
-            activitiesWithCost.size()
+            activitiesWithCost
         );
     }
-
-    private boolean hasAccessToTrip(Trip trip, User user) {
-        if (trip.getUser().getId().equals(user.getId())) {
-            return true;
-        }
-        if (trip.getIsPublic()) {
-            return true;
-        }
-        return tripMemberRepository.existsByTripAndUser(trip, user);
-    }
 }
@@ -0,0 +1,140 @@
+package com.travelplanner.service;
+
+import com.travelplanner.entity.Activity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Maintains trip_cost_rollups, the per trip, day and category cost totals read
+ * by the cost breakdown. ActivityService applies a delta for every activity
+ * write in the same transaction; a scheduled reconciliation rebuilds any trip
+ * whose rollups no longer match its activities.
+ */
+@Service
+@Transactional
+public class CostRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CostRollupService.class);
+
+    static final String UNCATEGORIZED = "UNCATEGORIZED";
+
+    private static final String APPLY_DELTA_SQL =
+        "INSERT INTO trip_cost_rollups (trip_id, date, category, total_cost, activity_count, costed_count) " +
+        "VALUES (?, ?, ?, ?, ?, ?) " +
+        "ON CONFLICT (trip_id, date, category) DO UPDATE SET " +
+        "total_cost = trip_cost_rollups.total_cost + EXCLUDED.total_cost, " +
+        "activity_count = trip_cost_rollups.activity_count + EXCLUDED.activity_count, " +
+        "costed_count = trip_cost_rollups.costed_count + EXCLUDED.costed_count";
+
+    private static final String DELETE_EMPTY_SQL =
+        "DELETE FROM trip_cost_rollups WHERE trip_id = ? AND date = ? AND category = ? AND activity_count <= 0";
+
+    private static final String AGGREGATE_ACTIVITIES_SQL =
+        "SELECT dp.trip_id, dp.date, COALESCE(a.category, '" + UNCATEGORIZED + "') AS category, " +
+        "COALESCE(SUM(a.cost), 0) AS total_cost, COUNT(*) AS activity_count, COUNT(a.cost) AS costed_count " +
+        "FROM activities a JOIN day_plans dp ON dp.id = a.day_plan_id ";
+
+    private static final String FIND_DRIFTED_TRIPS_SQL =
+        "WITH actual AS (" + AGGREGATE_ACTIVITIES_SQL +
+        "GROUP BY dp.trip_id, dp.date, COALESCE(a.category, '" + UNCATEGORIZED + "')) " +
+        "SELECT DISTINCT COALESCE(actual.trip_id, r.trip_id) FROM actual " +
+        "FULL OUTER JOIN trip_cost_rollups r " +
+        "ON r.trip_id = actual.trip_id AND r.date = actual.date AND r.category = actual.category " +
+        "WHERE actual.trip_id IS NULL OR r.trip_id IS NULL " +
+        "OR r.total_cost <> actual.total_cost OR r.activity_count <> actual.activity_count " +
+        "OR r.costed_count <> actual.costed_count";
+
+    private static final String REBUILD_TRIP_SQL =
+        "INSERT INTO trip_cost_rollups (trip_id, date, category, total_cost, activity_count, costed_count) " +
+        AGGREGATE_ACTIVITIES_SQL + "WHERE dp.trip_id = ? " +
+        "GROUP BY dp.trip_id, dp.date, COALESCE(a.category, '" + UNCATEGORIZED + "') " +
+        "ON CONFLICT (trip_id, date, category) DO UPDATE SET " +
+        "total_cost = EXCLUDED.total_cost, activity_count = EXCLUDED.activity_count, " +
+        "costed_count = EXCLUDED.costed_count";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public Contribution contributionOf(Activity activity) {
+        String category = activity.getCategory() != null ? activity.getCategory().name() : UNCATEGORIZED;
+        return new Contribution(
+            activity.getDayPlan().getTrip().getId(),
+            activity.getDayPlan().getDate(),
+            category,
+            activity.getCost()
+        );
+    }
+
+    public void add(Contribution contribution) {
+        applyDelta(contribution, 1);
+    }
+
+    public void remove(Contribution contribution) {
+        applyDelta(contribution, -1);
+        jdbcTemplate.update(DELETE_EMPTY_SQL, contribution.tripId(), contribution.date(), contribution.category());
+    }
+
+    public void replace(Contribution before, Contribution after) {
+        if (!before.equals(after)) {
+            remove(before);
+            add(after);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<Rollup> findByTripId(UUID tripId) {
+        return jdbcTemplate.query(
+            "SELECT date, category, total_cost, activity_count, costed_count FROM trip_cost_rollups WHERE trip_id = ?",
+            (rs, rowNum) -> new Rollup(
+                rs.getObject("date", LocalDate.class),
+                rs.getString("category"),
+                rs.getBigDecimal("total_cost"),
+                rs.getInt("activity_count"),
+                rs.getInt("costed_count")
+            ),
+            tripId
+        );
+    }
+
+    public void rebuild(UUID tripId) {
+        jdbcTemplate.update("DELETE FROM trip_cost_rollups WHERE trip_id = ?", tripId);
+        jdbcTemplate.update(REBUILD_TRIP_SQL, tripId);
+    }
+
+    @Scheduled(cron = "${analytics.rollups.reconcile-cron:0 0 3 * * *}")
+    public void reconcile() {
+        List<UUID> drifted = jdbcTemplate.queryForList(FIND_DRIFTED_TRIPS_SQL, UUID.class);
+        for (UUID tripId : drifted) {
+            rebuild(tripId);
+        }
+        if (!drifted.isEmpty()) {
+            logger.warn("Rebuilt cost rollups for {} trip(s) that had drifted", drifted.size());
+        }
+    }
+
+    private void applyDelta(Contribution contribution, int sign) {
+        BigDecimal cost = contribution.cost() != null ? contribution.cost() : BigDecimal.ZERO;
+        jdbcTemplate.update(APPLY_DELTA_SQL,
+            contribution.tripId(),
+            contribution.date(),
+            contribution.category(),
+            sign > 0 ? cost : cost.negate(),
+            sign,
+            contribution.cost() != null ? sign : 0
+        );
+    }
+
+    public record Contribution(UUID tripId, LocalDate date, String category, BigDecimal cost) {}
+
+    public record Rollup(LocalDate date, String category, BigDecimal totalCost, int activityCount, int costedCount) {}
+}
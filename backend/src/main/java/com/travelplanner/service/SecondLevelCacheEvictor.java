@@ -0,0 +1,68 @@
+package com.travelplanner.service;
+
+import com.travelplanner.entity.Tag;
+import com.travelplanner.entity.TripMember;
+import com.travelplanner.repository.TagRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Evicts second-level cache entries for rows written with JDBC. Hibernate only
+ * invalidates the regions of Tag, User and TripMember for writes made through
+ * the session; statements run with JdbcTemplate bypass it.
+ */
+@Component
+public class SecondLevelCacheEvictor {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Cached rows of tags whose columns were updated
+    public void evictTags(Collection<UUID> tagIds) {
+        if (tagIds.isEmpty()) {
+            return;
+        }
+        evict(() -> {
+            for (UUID tagId : tagIds) {
+                entityManagerFactory.getCache().evict(Tag.class, tagId);
+            }
+            evictTagQueryRegion();
+        });
+    }
+
+    // Cached lookups by name, which may have found no tag before an insert
+    public void evictTagQueries() {
+        evict(this::evictTagQueryRegion);
+    }
+
+    // Members removed by ON DELETE CASCADE; their ids are never read, so the
+    // whole region goes
+    public void evictTripMembers() {
+        evict(() -> entityManagerFactory.getCache().evict(TripMember.class));
+    }
+
+    private void evictTagQueryRegion() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache()
+            .evictQueryRegion(TagRepository.QUERY_CACHE_REGION);
+    }
+
+    private void evict(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Another transaction may cache the old rows before this one commits
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.travelplanner.service;
+
+import com.travelplanner.entity.Tag;
+import com.travelplanner.repository.TagRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Resolves tag names to Tag rows in bulk. Known names are served from a bounded
+ * LRU cache, unknown names are looked up with a single IN query and any that are
+ * still missing are inserted with one batched upsert before being re-read.
+ */
+@Component
+@Transactional
+public class TagResolver {
+
+    private static final String UPSERT_SQL = "INSERT INTO tags (name) VALUES (?) ON CONFLICT (name) DO NOTHING";
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SecondLevelCacheEvictor cacheEvictor;
+
+    private final Map<String, CachedTag> cache;
+
+    public TagResolver(@Value("${tags.cache.max-size:1000}") int maxCacheSize) {
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedTag> eldest) {
+                return size() > maxCacheSize;
+            }
+        };
+    }
+
+    public Set<Tag> resolve(Collection<String> tagNames) {
+        Set<String> names = normalize(tagNames);
+        Set<Tag> tags = new HashSet<>();
+        if (names.isEmpty()) {
+            return tags;
+        }
+
+        List<String> misses = new ArrayList<>();
+        synchronized (cache) {
+            for (String name : names) {
+                CachedTag cached = cache.get(name);
+                if (cached != null) {
+                    tags.add(cached.toTag());
+                } else {
+                    misses.add(name);
+                }
+            }
+        }
+        if (misses.isEmpty()) {
+            return tags;
+        }
+
+        List<Tag> found = tagRepository.findByNameIn(misses);
+        if (found.size() < misses.size()) {
+            Set<String> foundNames = new HashSet<>();
+            for (Tag tag : found) {
+                foundNames.add(tag.getName());
+            }
+            List<Object[]> missing = new ArrayList<>();
+            for (String name : misses) {
+                if (!foundNames.contains(name)) {
+                    missing.add(new Object[] { name });
+                }
+            }
+            jdbcTemplate.batchUpdate(UPSERT_SQL, missing);
+            cacheEvictor.evictTagQueries();
+            found = tagRepository.findByNameIn(misses);
+        }
+
+        tags.addAll(found);
+        remember(found);
+        return tags;
+    }
+
+    public void evict(String tagName) {
+        synchronized (cache) {
+            cache.remove(tagName);
+        }
+    }
+
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    private Set<String> normalize(Collection<String> tagNames) {
+        Set<String> names = new LinkedHashSet<>();
+        if (tagNames == null) {
+            return names;
+        }
+        for (String name : tagNames) {
+            if (name != null && !name.isBlank()) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    // Only cache rows once they are committed, otherwise a rolled back upsert
+    // would leave ids in the cache that point at nothing.
+    private void remember(List<Tag> tags) {
+        List<CachedTag> entries = new ArrayList<>(tags.size());
+        for (Tag tag : tags) {
+            entries.add(new CachedTag(tag.getId(), tag.getName(), tag.getColor()));
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    store(entries);
+                }
+            });
+        } else {
+            store(entries);
+        }
+    }
+
+    private void store(List<CachedTag> entries) {
+        synchronized (cache) {
+            for (CachedTag entry : entries) {
+                cache.put(entry.name(), entry);
+            }
+        }
+    }
+
+    // Cache hits are handed out as detached instances: the tag rows are never
+    // modified through the owning Trip/Activity, so only the id is needed to
+    // write the join table row and no extra SELECT is issued.
+    private record CachedTag(UUID id, String name, String color) {
+        Tag toTag() {
+            Tag tag = new Tag(name, color);
+            tag.setId(id);
+            return tag;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.travelplanner.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable interval tree over half-open time slots. Slots are kept sorted by
+ * start and viewed as an implicit balanced tree, each node remembering the
+ * latest end in its subtree, so finding the k slots that overlap a range costs
+ * O(log n + k) instead of a comparison against every slot. Empty slots never
+ * overlap anything.
+ */
+final class TimeSlotIndex<T> {
+
+    private final List<Slot<T>> slots;
+
+    private final LocalDateTime[] maxEnd;
+
+    TimeSlotIndex(List<Slot<T>> slots) {
+        this.slots = new ArrayList<>();
+        for (Slot<T> slot : slots) {
+            if (slot.start().isBefore(slot.end())) {
+                this.slots.add(slot);
+            }
+        }
+        this.slots.sort(Comparator.comparing(Slot<T>::start));
+        this.maxEnd = new LocalDateTime[this.slots.size()];
+        build(0, this.slots.size() - 1);
+    }
+
+    List<Slot<T>> overlapping(LocalDateTime start, LocalDateTime end) {
+        List<Slot<T>> result = new ArrayList<>();
+        if (start.isBefore(end)) {
+            collect(0, slots.size() - 1, start, end, result);
+        }
+        return result;
+    }
+
+    private LocalDateTime build(int lo, int hi) {
+        if (lo > hi) {
+            return null;
+        }
+        int mid = (lo + hi) >>> 1;
+        LocalDateTime max = slots.get(mid).end();
+        LocalDateTime left = build(lo, mid - 1);
+        LocalDateTime right = build(mid + 1, hi);
+        if (left != null && left.isAfter(max)) {
+            max = left;
+        }
+        if (right != null && right.isAfter(max)) {
+            max = right;
+        }
+        maxEnd[mid] = max;
+        return max;
+    }
+
+    private void collect(int lo, int hi, LocalDateTime start, LocalDateTime end, List<Slot<T>> result) {
+        if (lo > hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        // Nothing in this subtree ends after the range starts
+        if (!maxEnd[mid].isAfter(start)) {
+            return;
+        }
+        collect(lo, mid - 1, start, end, result);
+        Slot<T> slot = slots.get(mid);
+        // Everything right of a slot starting at or after the range end starts later still
+        if (slot.start().isBefore(end)) {
+            if (slot.end().isAfter(start)) {
+                result.add(slot);
+            }
+            collect(mid + 1, hi, start, end, result);
+        }
+    }
+
+    record Slot<T>(LocalDateTime start, LocalDateTime end, T value) {}
+}
@@ -0,0 +1,56 @@
+package com.travelplanner.service;
+
+import com.travelplanner.entity.TripMember;
+
+import java.util.UUID;
+
+/**
+ * A user's effective permissions on a single trip.
+ */
+public class TripAccess {
+    private final UUID tripId;
+    private final boolean owner;
+    private final boolean isPublic;
+    private final TripMember.MemberRole role;
+    private final boolean canEdit;
+    private final boolean canInvite;
+
+    public TripAccess(UUID tripId, boolean owner, boolean isPublic, TripMember.MemberRole role,
+                      boolean canEdit, boolean canInvite) {
+        this.tripId = tripId;
+        this.owner = owner;
+        this.isPublic = isPublic;
+        this.role = role;
+        this.canEdit = canEdit;
+        this.canInvite = canInvite;
+    }
+
+    public UUID getTripId() {
+        return tripId;
+    }
+
+    public boolean isOwner() {
+        return owner;
+    }
+
+    public boolean isPublic() {
+        return isPublic;
+    }
+
+    // Null when the user is neither the owner nor a member
+    public TripMember.MemberRole getRole() {
+        return role;
+    }
+
+    public boolean canView() {
+        return owner || isPublic || role != null;
+    }
+
+    public boolean canEdit() {
+        return owner || canEdit;
+    }
+
+    public boolean canInvite() {
+        return owner || canInvite;
+    }
+}
@@ -0,0 +1,36 @@
+package com.travelplanner.service;
+
+import com.travelplanner.entity.Trip;
+import com.travelplanner.entity.TripMember;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Invalidates cached trip permissions when a trip's owner or visibility or any
+ * of its memberships change.
+ */
+@Component
+public class TripAccessCacheListener {
+
+    // Lazy: the service depends on the EntityManagerFactory that creates this
+    // listener, an eager reference would make Hibernate fall back to an
+    // uninjected instance
+    @Lazy
+    @Autowired
+    private TripAccessService tripAccessService;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChanged(Object entity) {
+        if (entity instanceof Trip trip) {
+            tripAccessService.evictTrip(trip.getId());
+        } else if (entity instanceof TripMember member) {
+            tripAccessService.evictTrip(member.getTrip().getId());
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.travelplanner.service;
+
+import com.travelplanner.entity.TripMember;
+import com.travelplanner.entity.User;
+import com.travelplanner.repository.TripRepository;
+import com.travelplanner.repository.projection.TripAccessRow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Resolves what a user may do on a trip with a single query. Results are
+ * memoized for the current request and kept in a short-lived shared cache that
+ * is invalidated whenever the trip or its membership changes.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TripAccessService {
+
+    private static final String REQUEST_CACHE_ATTRIBUTE = TripAccessService.class.getName() + ".REQUEST_CACHE";
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    private final long ttlMs;
+
+    private final Map<AccessKey, Entry> accessCache;
+
+    // Day plans and activities never move between trips, so their trip id can
+    // be remembered without expiry.
+    private final Map<UUID, UUID> tripIdByChild;
+
+    public TripAccessService(@Value("${trips.access-cache.max-size:10000}") int maxSize,
+                             @Value("${trips.access-cache.ttl:30000}") long ttlMs) {
+        this.ttlMs = ttlMs;
+        this.accessCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<AccessKey, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.tripIdByChild = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, UUID> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public Optional<TripAccess> forTrip(UUID tripId, User user) {
+        return resolve(tripId, user, userId -> tripRepository.findAccessByTripId(tripId, userId));
+    }
+
+    public Optional<TripAccess> forDayPlan(UUID dayPlanId, User user) {
+        return forChild(dayPlanId, user, userId -> tripRepository.findAccessByDayPlanId(dayPlanId, userId));
+    }
+
+    public Optional<TripAccess> forActivity(UUID activityId, User user) {
+        return forChild(activityId, user, userId -> tripRepository.findAccessByActivityId(activityId, userId));
+    }
+
+    public void evictTrip(UUID tripId) {
+        removeTrip(tripId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Another request may cache the old state before this transaction commits
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removeTrip(tripId);
+                }
+            });
+        }
+    }
+
+    private Optional<TripAccess> forChild(UUID childId, User user, Function<UUID, Optional<TripAccessRow>> query) {
+        UUID tripId;
+        synchronized (tripIdByChild) {
+            tripId = tripIdByChild.get(childId);
+        }
+        if (tripId != null) {
+            return forTrip(tripId, user);
+        }
+
+        Optional<TripAccess> access = resolve(null, user, query);
+        access.ifPresent(resolved -> {
+            synchronized (tripIdByChild) {
+                tripIdByChild.put(childId, resolved.getTripId());
+            }
+        });
+        return access;
+    }
+
+    private Optional<TripAccess> resolve(UUID tripId, User user, Function<UUID, Optional<TripAccessRow>> query) {
+        UUID userId = user != null ? user.getId() : null;
+        Map<AccessKey, TripAccess> requestCache = requestCache();
+
+        if (tripId != null) {
+            AccessKey key = new AccessKey(tripId, userId);
+            if (requestCache != null && requestCache.containsKey(key)) {
+                return Optional.of(requestCache.get(key));
+            }
+            TripAccess cached = getCached(key);
+            if (cached != null) {
+                remember(requestCache, key, cached, false);
+                return Optional.of(cached);
+            }
+        }
+
+        Optional<TripAccess> access = query.apply(userId).map(row -> toTripAccess(row, userId));
+        access.ifPresent(resolved -> remember(requestCache, new AccessKey(resolved.getTripId(), userId), resolved, true));
+        return access;
+    }
+
+    private TripAccess toTripAccess(TripAccessRow row, UUID userId) {
+        boolean owner = userId != null && userId.equals(row.getOwnerId());
+        TripMember.MemberRole role = owner ? TripMember.MemberRole.OWNER : row.getMemberRole();
+        return new TripAccess(
+            row.getTripId(),
+            owner,
+            Boolean.TRUE.equals(row.getIsPublic()),
+            role,
+            Boolean.TRUE.equals(row.getCanEdit()),
+            Boolean.TRUE.equals(row.getCanInvite())
+        );
+    }
+
+    private TripAccess getCached(AccessKey key) {
+        synchronized (accessCache) {
+            Entry entry = accessCache.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() <= System.currentTimeMillis()) {
+                accessCache.remove(key);
+                return null;
+            }
+            return entry.access();
+        }
+    }
+
+    private void remember(Map<AccessKey, TripAccess> requestCache, AccessKey key, TripAccess access, boolean shared) {
+        if (requestCache != null) {
+            requestCache.put(key, access);
+        }
+        if (shared) {
+            synchronized (accessCache) {
+                accessCache.put(key, new Entry(access, System.currentTimeMillis() + ttlMs));
+            }
+        }
+    }
+
+    private void removeTrip(UUID tripId) {
+        synchronized (accessCache) {
+            accessCache.keySet().removeIf(key -> key.tripId().equals(tripId));
+        }
+        Map<AccessKey, TripAccess> requestCache = requestCache();
+        if (requestCache != null) {
+            requestCache.keySet().removeIf(key -> key.tripId().equals(tripId));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<AccessKey, TripAccess> requestCache() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Map<AccessKey, TripAccess> cache =
+            (Map<AccessKey, TripAccess>) attributes.getAttribute(REQUEST_CACHE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (cache == null) {
+            cache = new HashMap<>();
+            attributes.setAttribute(REQUEST_CACHE_ATTRIBUTE, cache, RequestAttributes.SCOPE_REQUEST);
+        }
+        return cache;
+    }
+
+    private record AccessKey(UUID tripId, UUID userId) {}
+
+    private record Entry(TripAccess access, long expiresAt) {}
+}
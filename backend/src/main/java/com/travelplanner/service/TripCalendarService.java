@@ -0,0 +1,104 @@
+package com.travelplanner.service;
+
+import com.travelplanner.dto.calendar.CalendarDayPlanResponse;
+import com.travelplanner.dto.calendar.CalendarResponse;
+import com.travelplanner.dto.calendar.CalendarTripResponse;
+import com.travelplanner.entity.TripMember;
+import com.travelplanner.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The trips a user owns or belongs to that overlap a date window, each with
+ * the day plans inside the window and their activity counts and costs. Answered
+ * with one statement whatever the window: owner trips come from the GiST index
+ * on (user_id, daterange) and member trips through trip_members, and day totals
+ * are read from trip_cost_rollups rather than from the activities.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TripCalendarService {
+
+    private static final String OVERLAPS_WINDOW =
+        "daterange(t.start_date, t.end_date, '[]') && daterange(?, ?, '[]') AND t.deleted_at IS NULL ";
+
+    private static final String CALENDAR_SQL =
+        "WITH calendar_trips AS (" +
+        "SELECT t.id, t.title, t.destination, t.start_date, t.end_date, t.is_public, 'OWNER' AS role " +
+        "FROM trips t WHERE t.user_id = ? AND " + OVERLAPS_WINDOW +
+        "UNION ALL " +
+        "SELECT t.id, t.title, t.destination, t.start_date, t.end_date, t.is_public, m.role " +
+        "FROM trip_members m JOIN trips t ON t.id = m.trip_id " +
+        "WHERE m.user_id = ? AND t.user_id <> ? AND " + OVERLAPS_WINDOW +
+        ") " +
+        "SELECT ct.*, dp.id AS day_plan_id, dp.date, dp.notes, r.activity_count, r.total_cost " +
+        "FROM calendar_trips ct " +
+        "LEFT JOIN day_plans dp ON dp.trip_id = ct.id AND dp.date BETWEEN ? AND ? " +
+        "LEFT JOIN LATERAL (" +
+        "SELECT COALESCE(SUM(activity_count), 0) AS activity_count, COALESCE(SUM(total_cost), 0) AS total_cost " +
+        "FROM trip_cost_rollups WHERE trip_id = dp.trip_id AND date = dp.date" +
+        ") r ON true " +
+        "ORDER BY ct.start_date, ct.id, dp.date";
+
+    @Value("${trips.calendar.max-days:366}")
+    private long maxDays;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public CalendarResponse getCalendar(User user, LocalDate from, LocalDate to) {
+        if (user == null) {
+            throw new AccessDeniedException("Authentication is required to view the calendar");
+        }
+        if (to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The window must not end before it starts");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The window may span at most " + maxDays + " days");
+        }
+
+        List<CalendarTripResponse> trips = jdbcTemplate.query(CALENDAR_SQL, rs -> {
+            List<CalendarTripResponse> result = new ArrayList<>();
+            CalendarTripResponse current = null;
+            while (rs.next()) {
+                UUID tripId = rs.getObject("id", UUID.class);
+                if (current == null || !current.getId().equals(tripId)) {
+                    current = new CalendarTripResponse();
+                    current.setId(tripId);
+                    current.setTitle(rs.getString("title"));
+                    current.setDestination(rs.getString("destination"));
+                    current.setStartDate(rs.getObject("start_date", LocalDate.class));
+                    current.setEndDate(rs.getObject("end_date", LocalDate.class));
+                    current.setIsPublic(rs.getBoolean("is_public"));
+                    current.setRole(TripMember.MemberRole.valueOf(rs.getString("role")));
+                    result.add(current);
+                }
+                UUID dayPlanId = rs.getObject("day_plan_id", UUID.class);
+                if (dayPlanId != null) {
+                    current.getDayPlans().add(new CalendarDayPlanResponse(
+                        dayPlanId,
+                        rs.getObject("date", LocalDate.class),
+                        rs.getString("notes"),
+                        rs.getInt("activity_count"),
+                        rs.getBigDecimal("total_cost")
+                    ));
+                }
+            }
+            return result;
+        }, user.getId(), from, to, user.getId(), user.getId(), from, to, from, to);
+
+        return new CalendarResponse(from, to, trips);
+    }
+}
@@ -0,0 +1,17 @@
+package com.travelplanner.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published after anything that feeds a user's trip summary changes. The users
+ * seeing the trip are looked up when the event is handled; a deleted trip has
+ * no members left by then, so its event names them up front.
+ */
+public record TripChangedEvent(UUID tripId, UUID actorId, Collection<UUID> userIds) {
+
+    public TripChangedEvent(UUID tripId, UUID actorId) {
+        this(tripId, actorId, List.of());
+    }
+}
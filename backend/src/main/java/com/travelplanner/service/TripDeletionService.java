@@ -0,0 +1,90 @@
+package com.travelplanner.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Deletes trips without loading them. Every table below trips references it
+ * (directly or through day_plans and activities) with ON DELETE CASCADE, so a
+ * single DELETE on trips removes day plans, activities, comments, tags,
+ * members, invitations and cost rollups in the database.
+ *
+ * Trips too large to delete within a request are marked deleted instead, which
+ * hides them immediately, and purged by a scheduled job a few day plans at a
+ * time so that no single statement holds locks on the whole trip.
+ */
+@Service
+public class TripDeletionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TripDeletionService.class);
+
+    private static final String DELETE_TRIP_SQL =
+        "DELETE FROM trips WHERE id = ? AND deleted_at IS NULL AND (CAST(? AS bigint) IS NULL OR version = ?)";
+
+    private static final String MARK_DELETED_SQL =
+        "UPDATE trips SET deleted_at = now() " +
+        "WHERE id = ? AND deleted_at IS NULL AND (CAST(? AS bigint) IS NULL OR version = ?)";
+
+    private static final String FIND_DELETED_SQL =
+        "SELECT id FROM trips WHERE deleted_at IS NOT NULL ORDER BY deleted_at LIMIT ?";
+
+    private static final String DELETE_DAY_PLANS_SQL =
+        "DELETE FROM day_plans WHERE id IN (SELECT id FROM day_plans WHERE trip_id = ? LIMIT ?)";
+
+    private static final String PURGE_TRIP_SQL =
+        "DELETE FROM trips WHERE id = ? AND deleted_at IS NOT NULL";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SecondLevelCacheEvictor cacheEvictor;
+
+    @Value("${trips.purge.trips-per-run:10}")
+    private int tripsPerRun;
+
+    @Value("${trips.purge.batch-size:10}")
+    private int dayPlansPerBatch;
+
+    // Returns false when the trip is gone or its version no longer matches
+    @Transactional
+    public boolean delete(UUID tripId, Long expectedVersion) {
+        if (jdbcTemplate.update(DELETE_TRIP_SQL, tripId, expectedVersion, expectedVersion) == 0) {
+            return false;
+        }
+        cacheEvictor.evictTripMembers();
+        return true;
+    }
+
+    @Transactional
+    public boolean markDeleted(UUID tripId, Long expectedVersion) {
+        return jdbcTemplate.update(MARK_DELETED_SQL, tripId, expectedVersion, expectedVersion) > 0;
+    }
+
+    // Not transactional: each batch commits on its own, and a trip interrupted
+    // half way is picked up again on the next run
+    @Scheduled(fixedDelayString = "${trips.purge.interval:30000}")
+    public void purge() {
+        List<UUID> tripIds = jdbcTemplate.queryForList(FIND_DELETED_SQL, UUID.class, tripsPerRun);
+        for (UUID tripId : tripIds) {
+            int dayPlans = 0;
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(DELETE_DAY_PLANS_SQL, tripId, dayPlansPerBatch);
+                dayPlans += deleted;
+            } while (deleted > 0);
+            jdbcTemplate.update(PURGE_TRIP_SQL, tripId);
+            cacheEvictor.evictTripMembers();
+            logger.info("Purged deleted trip {} ({} day plans)", tripId, dayPlans);
+        }
+    }
+}
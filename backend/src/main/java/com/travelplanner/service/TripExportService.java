@@ -0,0 +1,193 @@
+package com.travelplanner.service;
+
+import com.travelplanner.dto.transfer.TransferRecord;
+import com.travelplanner.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes trips as a stream of TransferRecords. Activities and comments are read
+ * through server-side cursors and written as each row arrives, so memory use
+ * does not depend on the size of the trip.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TripExportService {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final String TAGS_SQL =
+        "SELECT tg.name, tg.color FROM tags tg WHERE tg.id IN (" +
+        "SELECT tt.tag_id FROM trip_tags tt WHERE tt.trip_id = ? " +
+        "UNION SELECT at.tag_id FROM activity_tags at " +
+        "JOIN activities a ON a.id = at.activity_id JOIN day_plans dp ON dp.id = a.day_plan_id " +
+        "WHERE dp.trip_id = ?) ORDER BY tg.name";
+
+    private static final String TRIP_SQL =
+        "SELECT t.id, t.title, t.description, t.start_date, t.end_date, t.destination, t.budget, t.is_public, " +
+        "t.cover_image_url, ARRAY(SELECT tg.name FROM trip_tags tt JOIN tags tg ON tg.id = tt.tag_id " +
+        "WHERE tt.trip_id = t.id ORDER BY tg.name) AS tag_names FROM trips t WHERE t.id = ?";
+
+    private static final String MEMBERS_SQL =
+        "SELECT u.email, m.role, m.can_edit, m.can_invite FROM trip_members m " +
+        "JOIN users u ON u.id = m.user_id WHERE m.trip_id = ? ORDER BY u.email";
+
+    private static final String DAY_PLANS_SQL =
+        "SELECT id, date, notes FROM day_plans WHERE trip_id = ? ORDER BY date";
+
+    private static final String ACTIVITIES_SQL =
+        "SELECT a.id, a.day_plan_id, a.title, a.description, a.start_time, a.end_time, a.location, a.cost, " +
+        "a.category, a.booking_url, a.notes, a.is_completed, " +
+        "ARRAY(SELECT tg.name FROM activity_tags at JOIN tags tg ON tg.id = at.tag_id " +
+        "WHERE at.activity_id = a.id ORDER BY tg.name) AS tag_names " +
+        "FROM activities a JOIN day_plans dp ON dp.id = a.day_plan_id WHERE dp.trip_id = ? " +
+        "ORDER BY dp.date, a.start_time, a.id";
+
+    private static final String COMMENTS_SQL =
+        "SELECT c.id, c.activity_id, u.email, c.content, c.created_at FROM comments c " +
+        "JOIN users u ON u.id = c.author_id JOIN activities a ON a.id = c.activity_id " +
+        "JOIN day_plans dp ON dp.id = a.day_plan_id WHERE dp.trip_id = ? ORDER BY c.created_at, c.id";
+
+    @Autowired
+    private TripAccessService tripAccessService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TripTransferCodec codec;
+
+    // Exports contain member emails and are meant for backups, so they are
+    // limited to people who can edit the trip
+    public void verifyCanExport(UUID tripId, User user) {
+        TripAccess access = tripAccessService.forTrip(tripId, user)
+            .orElseThrow(() -> new RuntimeException("Trip not found"));
+
+        if (!access.canEdit()) {
+            throw new AccessDeniedException("You don't have permission to export this trip");
+        }
+    }
+
+    // Callers must run verifyCanExport first
+    public void exportTrip(UUID tripId, TripTransferCodec.Format format, OutputStream out) throws IOException {
+        TripTransferCodec.RecordWriter writer = codec.writer(format, out);
+        writeTrip(tripId, writer);
+        out.flush();
+    }
+
+    public void verifyCanExportOwn(User user) {
+        if (user == null) {
+            throw new AccessDeniedException("Authentication is required to export trips");
+        }
+    }
+
+    // Callers must run verifyCanExportOwn first
+    public void exportUserTrips(User user, TripTransferCodec.Format format, OutputStream out) throws IOException {
+        List<UUID> tripIds = jdbcTemplate.queryForList(
+            "SELECT id FROM trips WHERE user_id = ? AND deleted_at IS NULL ORDER BY start_date, id", UUID.class, user.getId());
+
+        TripTransferCodec.RecordWriter writer = codec.writer(format, out);
+        for (UUID tripId : tripIds) {
+            writeTrip(tripId, writer);
+            out.flush();
+        }
+    }
+
+    private void writeTrip(UUID tripId, TripTransferCodec.RecordWriter writer) throws IOException {
+        try {
+            jdbcTemplate.query(TAGS_SQL, (RowCallbackHandler) rs -> write(writer,
+                new TransferRecord.TagRecord(rs.getString("name"), rs.getString("color"))), tripId, tripId);
+
+            jdbcTemplate.query(TRIP_SQL, (RowCallbackHandler) rs -> write(writer, new TransferRecord.TripRecord(
+                rs.getObject("id", UUID.class),
+                rs.getString("title"),
+                rs.getString("description"),
+                rs.getObject("start_date", LocalDate.class),
+                rs.getObject("end_date", LocalDate.class),
+                rs.getString("destination"),
+                rs.getBigDecimal("budget"),
+                rs.getBoolean("is_public"),
+                rs.getString("cover_image_url"),
+                names(rs.getArray("tag_names"))
+            )), tripId);
+
+            jdbcTemplate.query(MEMBERS_SQL, (RowCallbackHandler) rs -> write(writer, new TransferRecord.MemberRecord(
+                rs.getString("email"),
+                rs.getString("role"),
+                rs.getBoolean("can_edit"),
+                rs.getBoolean("can_invite")
+            )), tripId);
+
+            jdbcTemplate.query(DAY_PLANS_SQL, (RowCallbackHandler) rs -> write(writer, new TransferRecord.DayPlanRecord(
+                rs.getObject("id", UUID.class),
+                rs.getObject("date", LocalDate.class),
+                rs.getString("notes")
+            )), tripId);
+
+            streamRows(ACTIVITIES_SQL, tripId, rs -> write(writer, new TransferRecord.ActivityRecord(
+                rs.getObject("id", UUID.class),
+                rs.getObject("day_plan_id", UUID.class),
+                rs.getString("title"),
+                rs.getString("description"),
+                rs.getObject("start_time", LocalTime.class),
+                rs.getObject("end_time", LocalTime.class),
+                rs.getString("location"),
+                rs.getBigDecimal("cost"),
+                rs.getString("category"),
+                rs.getString("booking_url"),
+                rs.getString("notes"),
+                rs.getBoolean("is_completed"),
+                names(rs.getArray("tag_names"))
+            )));
+
+            streamRows(COMMENTS_SQL, tripId, rs -> write(writer, new TransferRecord.CommentRecord(
+                rs.getObject("id", UUID.class),
+                rs.getObject("activity_id", UUID.class),
+                rs.getString("email"),
+                rs.getString("content"),
+                rs.getObject("created_at", LocalDateTime.class)
+            )));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // The fetch size makes the driver use a cursor (the surrounding transaction
+    // keeps autocommit off) instead of buffering the whole result
+    private void streamRows(String sql, UUID tripId, RowCallbackHandler handler) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement statement = con.prepareStatement(sql);
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setObject(1, tripId);
+            return statement;
+        }, handler);
+    }
+
+    private void write(TripTransferCodec.RecordWriter writer, TransferRecord record) {
+        try {
+            writer.write(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<String> names(Array array) throws SQLException {
+        return array != null ? List.of((String[]) array.getArray()) : List.of();
+    }
+}
@@ -0,0 +1,320 @@
+package com.travelplanner.service;
+
+import com.travelplanner.dto.transfer.TransferRecord;
+import com.travelplanner.dto.transfer.TripImportResponse;
+import com.travelplanner.entity.Activity;
+import com.travelplanner.entity.Tag;
+import com.travelplanner.entity.TripMember;
+import com.travelplanner.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reads a trip export stream and recreates its trips for the importing user,
+ * who becomes the owner. Exported members are invited by email instead of
+ * being added and comments are attributed to the importing user, so an export
+ * cannot act on behalf of the accounts it names. Rows are written in JDBC
+ * batches as records arrive. New ids are derived from the exported ones and a
+ * per-import seed, so references between records resolve without keeping an
+ * id map and the same export can be imported more than once.
+ */
+@Service
+@Transactional
+public class TripImportService {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_TRIP_SQL =
+        "INSERT INTO trips (id, title, description, start_date, end_date, destination, budget, is_public, " +
+        "cover_image_url, user_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_MEMBER_SQL =
+        "INSERT INTO trip_members (trip_id, user_id, role, can_edit, can_invite) VALUES (?, ?, ?, ?, ?) " +
+        "ON CONFLICT (trip_id, user_id) DO NOTHING";
+
+    private static final String INSERT_INVITATION_SQL =
+        "INSERT INTO invitations (trip_id, inviter_id, invitee_email, role, token) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String INSERT_DAY_PLAN_SQL =
+        "INSERT INTO day_plans (id, trip_id, date, notes) VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_ACTIVITY_SQL =
+        "INSERT INTO activities (id, day_plan_id, title, description, start_time, end_time, location, cost, " +
+        "category, booking_url, notes, is_completed) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ACTIVITY_TAG_SQL =
+        "INSERT INTO activity_tags (activity_id, tag_id) VALUES (?, ?)";
+
+    private static final String INSERT_COMMENT_SQL =
+        "INSERT INTO comments (id, activity_id, author_id, content, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TagResolver tagResolver;
+
+    @Autowired
+    private CostRollupService costRollupService;
+
+    @Autowired
+    private TripTransferCodec codec;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private SecondLevelCacheEvictor cacheEvictor;
+
+    public TripImportResponse importTrips(InputStream in, TripTransferCodec.Format format, User user) throws IOException {
+        if (user == null) {
+            throw new AccessDeniedException("Authentication is required to import trips");
+        }
+
+        Import state = new Import(user, UUID.randomUUID());
+        TripTransferCodec.RecordReader reader = codec.reader(format, in);
+        TransferRecord record;
+        while ((record = reader.next()) != null) {
+            state.accept(record);
+        }
+        state.finishTrip();
+        return state.response;
+    }
+
+    private final class Import {
+        private final User user;
+        private final UUID seed;
+        private final TripImportResponse response = new TripImportResponse();
+
+        // Bounded by the number of distinct tags, not by the number of rows
+        private final List<TransferRecord.TagRecord> pendingTags = new ArrayList<>();
+        private final Map<String, UUID> tagIds = new HashMap<>();
+        private UUID tripId;
+
+        // Each batch flushes the batch holding the rows it references first
+        private final Batch dayPlans = new Batch(INSERT_DAY_PLAN_SQL, null);
+        private final Batch activities = new Batch(INSERT_ACTIVITY_SQL, dayPlans);
+        private final Batch activityTags = new Batch(INSERT_ACTIVITY_TAG_SQL, activities);
+        private final Batch comments = new Batch(INSERT_COMMENT_SQL, activities);
+
+        Import(User user, UUID seed) {
+            this.user = user;
+            this.seed = seed;
+        }
+
+        void accept(TransferRecord record) {
+            if (record instanceof TransferRecord.TagRecord tag) {
+                if (tripId != null) {
+                    finishTrip();
+                }
+                pendingTags.add(tag);
+            } else if (record instanceof TransferRecord.TripRecord trip) {
+                if (tripId != null) {
+                    finishTrip();
+                }
+                startTrip(trip);
+            } else if (tripId == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Export stream must start with a trip");
+            } else if (record instanceof TransferRecord.MemberRecord member) {
+                addMember(member);
+            } else if (record instanceof TransferRecord.DayPlanRecord dayPlan) {
+                dayPlans.add(newId(dayPlan.id()), tripId, dayPlan.date(), dayPlan.notes());
+            } else if (record instanceof TransferRecord.ActivityRecord activity) {
+                addActivity(activity);
+            } else if (record instanceof TransferRecord.CommentRecord comment) {
+                addComment(comment);
+            }
+        }
+
+        void startTrip(TransferRecord.TripRecord trip) {
+            if (trip.startDate() != null && trip.endDate() != null && trip.endDate().isBefore(trip.startDate())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "End date must not be before start date");
+            }
+            resolvePendingTags();
+            tripId = newId(trip.id());
+            jdbcTemplate.update(INSERT_TRIP_SQL, tripId, trip.title(), trip.description(), trip.startDate(),
+                trip.endDate(), trip.destination(), trip.budget(), trip.isPublic(), trip.coverImageUrl(), user.getId());
+            jdbcTemplate.update(INSERT_MEMBER_SQL, tripId, user.getId(), TripMember.MemberRole.OWNER.name(), true, true);
+
+            List<Object[]> tripTags = new ArrayList<>();
+            for (UUID tagId : tagIdsFor(trip.tagNames())) {
+                tripTags.add(new Object[] { tripId, tagId });
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO trip_tags (trip_id, tag_id) VALUES (?, ?)", tripTags);
+            response.getTripIds().add(tripId);
+        }
+
+        // Members are only invited: whether an email has an account here is
+        // neither looked up nor reported back
+        void addMember(TransferRecord.MemberRecord member) {
+            TripMember.MemberRole role = memberRole(member.role());
+            if (member.email() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Member record without an email");
+            }
+            if (member.email().equalsIgnoreCase(user.getEmail())) {
+                return;
+            }
+            // There is only one owner, the importing user
+            if (role == TripMember.MemberRole.OWNER) {
+                role = TripMember.MemberRole.ADMIN;
+            }
+            jdbcTemplate.update(INSERT_INVITATION_SQL, tripId, user.getId(), member.email(), role.name(),
+                UUID.randomUUID().toString());
+            response.setInvitations(response.getInvitations() + 1);
+        }
+
+        void addActivity(TransferRecord.ActivityRecord activity) {
+            Activity.ActivityCategory category = category(activity.category());
+            UUID activityId = newId(activity.id());
+            activities.add(
+                activityId, newId(activity.dayPlanId()), activity.title(), activity.description(),
+                activity.startTime(), activity.endTime(), activity.location(), activity.cost(),
+                category != null ? category.name() : null, activity.bookingUrl(), activity.notes(), activity.isCompleted()
+            );
+            for (UUID tagId : tagIdsFor(activity.tagNames())) {
+                activityTags.add(activityId, tagId);
+            }
+        }
+
+        void addComment(TransferRecord.CommentRecord comment) {
+            LocalDateTime createdAt = comment.createdAt() != null ? comment.createdAt() : LocalDateTime.now();
+            comments.add(newId(comment.id()), newId(comment.activityId()), user.getId(), comment.content(), createdAt);
+        }
+
+        void finishTrip() {
+            if (tripId == null) {
+                return;
+            }
+            activityTags.flush();
+            comments.flush();
+            costRollupService.rebuild(tripId);
+            eventPublisher.publishEvent(new TripChangedEvent(tripId, user.getId()));
+            response.setActivities(response.getActivities() + activities.written);
+            response.setComments(response.getComments() + comments.written);
+            activities.written = 0;
+            comments.written = 0;
+            tripId = null;
+            tagIds.clear();
+        }
+
+        // Tag records precede their trip; resolve them together and keep the
+        // exported colour for tags that did not exist yet
+        private void resolvePendingTags() {
+            if (pendingTags.isEmpty()) {
+                return;
+            }
+            List<String> names = pendingTags.stream().map(TransferRecord.TagRecord::name).toList();
+            for (Tag tag : tagResolver.resolve(names)) {
+                tagIds.put(tag.getName(), tag.getId());
+            }
+            List<Object[]> colors = new ArrayList<>();
+            List<UUID> coloredTagIds = new ArrayList<>();
+            for (TransferRecord.TagRecord tag : pendingTags) {
+                UUID tagId = tagIds.get(tag.name());
+                if (tag.color() != null && tagId != null) {
+                    colors.add(new Object[] { tag.color(), tag.name() });
+                    coloredTagIds.add(tagId);
+                }
+            }
+            jdbcTemplate.batchUpdate("UPDATE tags SET color = ? WHERE name = ? AND color IS NULL", colors);
+            cacheEvictor.evictTags(coloredTagIds);
+            pendingTags.clear();
+        }
+
+        private List<UUID> tagIdsFor(List<String> names) {
+            List<UUID> ids = new ArrayList<>();
+            if (names == null) {
+                return ids;
+            }
+            List<String> unknown = names.stream().filter(name -> !tagIds.containsKey(name)).toList();
+            if (!unknown.isEmpty()) {
+                for (Tag tag : tagResolver.resolve(unknown)) {
+                    tagIds.put(tag.getName(), tag.getId());
+                }
+            }
+            for (String name : names) {
+                UUID id = tagIds.get(name);
+                if (id != null && !ids.contains(id)) {
+                    ids.add(id);
+                }
+            }
+            return ids;
+        }
+
+        // Enum columns are plain VARCHARs, so a value the entities cannot map
+        // back would only fail once the row is read
+        private TripMember.MemberRole memberRole(String role) {
+            if (role == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Member record without a role");
+            }
+            try {
+                return TripMember.MemberRole.valueOf(role);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown member role: " + role);
+            }
+        }
+
+        // Activities may have no category
+        private Activity.ActivityCategory category(String category) {
+            if (category == null) {
+                return null;
+            }
+            try {
+                return Activity.ActivityCategory.valueOf(category);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown activity category: " + category);
+            }
+        }
+
+        private UUID newId(UUID exportedId) {
+            return UUID.nameUUIDFromBytes((seed + ":" + exportedId).getBytes(StandardCharsets.UTF_8));
+        }
+
+        private final class Batch {
+            private final String sql;
+            private final Batch parent;
+            private final List<Object[]> pending = new ArrayList<>();
+            private long written;
+
+            Batch(String sql, Batch parent) {
+                this.sql = sql;
+                this.parent = parent;
+            }
+
+            void add(Object... row) {
+                pending.add(row);
+                if (pending.size() >= BATCH_SIZE) {
+                    flush();
+                }
+            }
+
+            void flush() {
+                if (parent != null) {
+                    parent.flush();
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+                jdbcTemplate.batchUpdate(sql, pending);
+                written += pending.size();
+                pending.clear();
+            }
+        }
+    }
+}
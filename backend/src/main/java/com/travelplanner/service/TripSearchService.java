@@ -0,0 +1,80 @@
+package com.travelplanner.service;
+
+import com.travelplanner.dto.trip.TripSearchCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Ranked search over public trips. Every query term is matched as a prefix
+ * against trips.search_vector (kept up to date by triggers, see V4 and V10), and the
+ * whole phrase is also matched by trigram word similarity against title and
+ * destination so small typos still find the trip.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TripSearchService {
+
+    private static final int MAX_TERMS = 8;
+
+    private static final int MAX_TERM_LENGTH = 64;
+
+    private static final String SCORED_MATCHES_SQL =
+        "SELECT id, score FROM (" +
+        "SELECT t.id, CAST(ts_rank_cd(t.search_vector, q.query) + " +
+        "COALESCE(GREATEST(word_similarity(?, t.title), word_similarity(?, t.destination)), 0) * 0.5 AS real) AS score " +
+        "FROM trips t, (SELECT to_tsquery('simple', ?) AS query) q " +
+        "WHERE t.is_public AND t.deleted_at IS NULL AND (t.search_vector @@ q.query OR ? <% t.title OR ? <% t.destination)" +
+        ") s ";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Returns up to limit matches after the cursor, best match first
+    public List<Match> search(String query, TripSearchCursor after, int limit) {
+        List<String> terms = terms(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        String phrase = String.join(" ", terms);
+        String tsQuery = String.join(" & ", terms.stream().map(term -> term + ":*").toList());
+
+        List<Object> args = new ArrayList<>(List.of(phrase, phrase, tsQuery, phrase, phrase));
+        StringBuilder sql = new StringBuilder(SCORED_MATCHES_SQL);
+        if (after != null) {
+            sql.append("WHERE (s.score, s.id) < (CAST(? AS real), ?) ");
+            args.add(after.getScore());
+            args.add(after.getId());
+        }
+        sql.append("ORDER BY s.score DESC, s.id DESC LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(),
+            (rs, rowNum) -> new Match(rs.getObject("id", UUID.class), rs.getFloat("score")),
+            args.toArray());
+    }
+
+    // Only letters and digits reach to_tsquery, so user input can never form
+    // tsquery operators
+    private List<String> terms(String query) {
+        List<String> terms = new ArrayList<>();
+        if (query == null) {
+            return terms;
+        }
+        for (String token : query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty() && terms.size() < MAX_TERMS) {
+                terms.add(token.length() > MAX_TERM_LENGTH ? token.substring(0, MAX_TERM_LENGTH) : token);
+            }
+        }
+        return terms;
+    }
+
+    public record Match(UUID tripId, float score) {}
+}
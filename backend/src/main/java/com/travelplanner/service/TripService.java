@@ -1,19 +1,40 @@
 package com.travelplanner.service;
 
+import com.travelplanner.dto.CursorPageResponse;
+import com.travelplanner.dto.activity.ActivityResponse;
+import com.travelplanner.dto.dayplan.DayPlanDetailResponse;
+import com.travelplanner.dto.dayplan.DayPlanResponse;
+import com.travelplanner.dto.tag.TagResponse;
+import com.travelplanner.dto.trip.ItineraryResponse;
 import com.travelplanner.dto.trip.TripCreateRequest;
+import com.travelplanner.dto.trip.TripCursor;
 import com.travelplanner.dto.trip.TripResponse;
+import com.travelplanner.dto.trip.TripSearchCursor;
 import com.travelplanner.dto.user.UserSummaryResponse;
 import com.travelplanner.entity.*;
 import com.travelplanner.repository.*;
+import com.travelplanner.repository.projection.TripSummary;
+import com.travelplanner.repository.projection.TripTag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -29,7 +50,22 @@ public class TripService {
     private TripMemberRepository tripMemberRepository;
 
     @Autowired
-    private TagRepository tagRepository;
+    private TagResolver tagResolver;
+
+    @Autowired
+    private TripAccessService tripAccessService;
+
+    @Autowired
+    private TripSearchService tripSearchService;
+
+    @Autowired
+    private TripDeletionService tripDeletionService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ActivityService activityService;
 
     @Autowired
     private DayPlanRepository dayPlanRepository;
@@ -37,7 +73,11 @@ public class TripService {
     @Autowired
     private UserRepository userRepository;
 
+    @Value("${trips.day-plans.eager-max-days:120}")
+    private long eagerDayPlanMaxDays;
+
     public TripResponse createTrip(TripCreateRequest request, User user) {
+        verifyDates(request);
         Trip trip = new Trip();
         trip.setTitle(request.getTitle());
         trip.setDescription(request.getDescription());
@@ -51,16 +91,10 @@ public class TripService {
 
         // Handle tags
         if (request.getTagNames() != null && !request.getTagNames().isEmpty()) {
-            Set<Tag> tags = new HashSet<>();
-            for (String tagName : request.getTagNames()) {
-                Tag tag = tagRepository.findByName(tagName)
-                    .orElseGet(() -> tagRepository.save(new Tag(tagName)));
-                tags.add(tag);
-            }
-            trip.setTags(tags);
+            trip.setTags(tagResolver.resolve(request.getTagNames()));
         }
 
-        trip = tripRepository.save(trip);
+        trip = tripRepository.saveAndFlush(trip);
 
         // Create owner as trip member
         TripMember ownerMember = new TripMember(trip, user, TripMember.MemberRole.OWNER);
@@ -69,18 +103,79 @@ public class TripService {
         // Create day plans for each day of the trip
         createDayPlansForTrip(trip);
 
+        eventPublisher.publishEvent(new TripChangedEvent(trip.getId(), user.getId()));
         return convertToTripResponse(trip);
     }
 
+    @Transactional(readOnly = true)
     public Page<TripResponse> getUserTrips(User user, Pageable pageable) {
-        Page<Trip> trips = tripRepository.findByUserOrMember(user, pageable);
-        return trips.map(this::convertToTripResponse);
+        Page<TripSummary> trips = tripRepository.findSummariesByUserOrMember(user.getId(), pageable);
+        return toTripResponsePage(trips);
     }
 
     // Temporary method for testing without authentication
+    @Transactional(readOnly = true)
     public Page<TripResponse> getAllTrips(Pageable pageable) {
-        Page<Trip> trips = tripRepository.findAll(pageable);
-        return trips.map(this::convertToTripResponse);
+        Page<TripSummary> trips = tripRepository.findAllSummaries(pageable);
+        return toTripResponsePage(trips);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponse<TripResponse> getUserTripsAfter(User user, String cursor, int size, boolean includeTotal) {
+        if (user == null) {
+            throw new AccessDeniedException("Authentication is required to list trips");
+        }
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<TripSummary> trips;
+        if (cursor == null || cursor.isBlank()) {
+            trips = tripRepository.findFirstSummariesByUserOrMember(user.getId(), limit);
+        } else {
+            TripCursor after = decodeCursor(cursor);
+            trips = tripRepository.findSummariesByUserOrMemberAfter(user.getId(), after.getStartDate(), after.getId(), limit);
+        }
+        Long total = includeTotal ? tripRepository.countByUserOrMember(user.getId()) : null;
+        return toCursorPage(trips, size, total);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponse<TripResponse> searchPublicTrips(String query, String cursor, int size) {
+        TripSearchCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                after = TripSearchCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+
+        List<TripSearchService.Match> matches = tripSearchService.search(query, after, size + 1);
+        String nextCursor = null;
+        if (matches.size() > size) {
+            matches = matches.subList(0, size);
+            TripSearchService.Match last = matches.get(size - 1);
+            nextCursor = new TripSearchCursor(last.score(), last.tripId()).encode();
+        }
+        if (matches.isEmpty()) {
+            return new CursorPageResponse<>(new ArrayList<>(), null, null);
+        }
+
+        // Summaries come back in arbitrary order, put them back in rank order
+        List<UUID> tripIds = matches.stream().map(TripSearchService.Match::tripId).toList();
+        List<TripSummary> summaries = tripRepository.findSummariesByIds(tripIds);
+        Map<UUID, TripSummary> summariesById = new HashMap<>();
+        for (TripSummary summary : summaries) {
+            summariesById.put(summary.getId(), summary);
+        }
+
+        Map<UUID, Set<TagResponse>> tagsByTrip = loadTags(summaries);
+        List<TripResponse> content = new ArrayList<>(tripIds.size());
+        for (UUID tripId : tripIds) {
+            TripSummary summary = summariesById.get(tripId);
+            if (summary != null) {
+                content.add(toTripResponse(summary, tagsByTrip));
+            }
+        }
+        return new CursorPageResponse<>(content, nextCursor, null);
     }
 
     // Temporary method to create trips without authentication
@@ -95,7 +190,8 @@ public class TripService {
                 newUser.setPassword("dummy"); // Dummy password
                 return userRepository.save(newUser);
             });
-        
+        verifyDates(request);
+
         Trip trip = new Trip();
         trip.setTitle(request.getTitle());
         trip.setDescription(request.getDescription());
@@ -109,47 +205,117 @@ public class TripService {
 
         // Handle tags
         if (request.getTagNames() != null && !request.getTagNames().isEmpty()) {
-            Set<Tag> tags = new HashSet<>();
-            for (String tagName : request.getTagNames()) {
-                Tag tag = tagRepository.findByName(tagName)
-                    .orElseGet(() -> tagRepository.save(new Tag(tagName)));
-                tags.add(tag);
-            }
-            trip.setTags(tags);
+            trip.setTags(tagResolver.resolve(request.getTagNames()));
         }
 
-        trip = tripRepository.save(trip);
+        trip = tripRepository.saveAndFlush(trip);
 
         // Create day plans for each day of the trip
         createDayPlansForTrip(trip);
 
+        eventPublisher.publishEvent(new TripChangedEvent(trip.getId(), dummyUser.getId()));
         return convertToTripResponseWithoutUser(trip, dummyUser);
     }
 
     public Optional<TripResponse> getTripById(UUID tripId, User user) {
-        Optional<Trip> tripOpt = tripRepository.findById(tripId);
-        if (tripOpt.isEmpty()) {
+        Optional<TripAccess> access = tripAccessService.forTrip(tripId, user);
+        if (access.isEmpty()) {
             return Optional.empty();
         }
 
-        Trip trip = tripOpt.get();
-        
         // Check if user has access to this trip
-        if (!hasAccessToTrip(trip, user)) {
+        if (!access.get().canView()) {
             throw new AccessDeniedException("You don't have access to this trip");
         }
 
-        return Optional.of(convertToTripResponse(trip));
+        return tripRepository.findById(tripId).map(this::convertToTripResponse);
+    }
+
+    // Current version of the trip for conditional GETs, checked before anything
+    // else is loaded
+    @Transactional(readOnly = true)
+    public Optional<Long> getTripVersion(UUID tripId, User user) {
+        Optional<TripAccess> access = tripAccessService.forTrip(tripId, user);
+        if (access.isEmpty()) {
+            return Optional.empty();
+        }
+        if (!access.get().canView()) {
+            throw new AccessDeniedException("You don't have access to this trip");
+        }
+        return tripRepository.findVersionById(tripId);
     }
 
-    public TripResponse updateTrip(UUID tripId, TripCreateRequest request, User user) {
+    public List<DayPlanResponse> getDayPlans(UUID tripId, User user) {
+        TripAccess access = tripAccessService.forTrip(tripId, user)
+            .orElseThrow(() -> new RuntimeException("Trip not found"));
+
+        if (!access.canView()) {
+            throw new AccessDeniedException("You don't have access to this trip");
+        }
+
         Trip trip = tripRepository.findById(tripId)
             .orElseThrow(() -> new RuntimeException("Trip not found"));
 
-        if (!canEditTrip(trip, user)) {
+        // Long trips skip day plan creation up front; fill them in on first read
+        if (!createsDayPlansEagerly(trip)) {
+            dayPlanRepository.insertMissingDays(trip.getId(), trip.getStartDate(), trip.getEndDate());
+        }
+
+        return dayPlanRepository.findSummariesByTripId(trip.getId());
+    }
+
+    // Weak validator for the itinerary; cheap to compute because nothing beyond
+    // ids and timestamps is read
+    @Transactional(readOnly = true)
+    public String getItineraryETag(UUID tripId, User user) {
+        verifyCanView(tripId, user);
+        return "W/\"" + tripRepository.findItineraryFingerprint(tripId) + "\"";
+    }
+
+    // The whole trip in a fixed number of queries regardless of its length: the
+    // trip summary, its tags, the day plans and one joined query for every
+    // activity with its tags.
+    public ItineraryResponse getItinerary(UUID tripId, User user) {
+        verifyCanView(tripId, user);
+
+        List<TripSummary> summaries = tripRepository.findSummariesByIds(List.of(tripId));
+        if (summaries.isEmpty()) {
+            throw new RuntimeException("Trip not found");
+        }
+        TripSummary summary = summaries.get(0);
+
+        if (!createsDayPlansEagerly(summary.getStartDate(), summary.getEndDate())) {
+            dayPlanRepository.insertMissingDays(tripId, summary.getStartDate(), summary.getEndDate());
+        }
+
+        Map<UUID, DayPlanDetailResponse> dayPlansById = new LinkedHashMap<>();
+        for (DayPlanResponse dayPlan : dayPlanRepository.findSummariesByTripId(tripId)) {
+            dayPlansById.put(dayPlan.getId(), new DayPlanDetailResponse(dayPlan));
+        }
+        for (ActivityResponse activity : activityService.getTripActivities(tripId)) {
+            DayPlanDetailResponse dayPlan = dayPlansById.get(activity.getDayPlanId());
+            if (dayPlan != null) {
+                dayPlan.getActivities().add(activity);
+            }
+        }
+
+        TripResponse trip = toTripResponse(summary, loadTags(summaries));
+        return new ItineraryResponse(trip, new ArrayList<>(dayPlansById.values()));
+    }
+
+    public TripResponse updateTrip(UUID tripId, TripCreateRequest request, User user, Long expectedVersion) {
+        TripAccess access = tripAccessService.forTrip(tripId, user)
+            .orElseThrow(() -> new RuntimeException("Trip not found"));
+
+        if (!access.canEdit()) {
             throw new AccessDeniedException("You don't have permission to edit this trip");
         }
 
+        Trip trip = tripRepository.findById(tripId)
+            .orElseThrow(() -> new RuntimeException("Trip not found"));
+        verifyVersion(trip.getVersion(), expectedVersion);
+        verifyDates(request);
+
         trip.setTitle(request.getTitle());
         trip.setDescription(request.getDescription());
         trip.setStartDate(request.getStartDate());
@@ -161,66 +327,165 @@ public class TripService {
 
         // Handle tags
         if (request.getTagNames() != null) {
-            Set<Tag> tags = new HashSet<>();
-            for (String tagName : request.getTagNames()) {
-                Tag tag = tagRepository.findByName(tagName)
-                    .orElseGet(() -> tagRepository.save(new Tag(tagName)));
-                tags.add(tag);
-            }
-            trip.setTags(tags);
+            trip.setTags(tagResolver.resolve(request.getTagNames()));
         }
 
-        trip = tripRepository.save(trip);
+        // Flush so the response carries the incremented version
+        trip = tripRepository.saveAndFlush(trip);
+        // A lazy trip shortened to the eager limit is no longer filled in on
+        // read, and days added by new dates are missing either way
+        createDayPlansForTrip(trip);
+        eventPublisher.publishEvent(new TripChangedEvent(trip.getId(), user.getId()));
         return convertToTripResponse(trip);
     }
 
-    public void deleteTrip(UUID tripId, User user) {
-        Trip trip = tripRepository.findById(tripId)
+    // Deletes in the database through the ON DELETE CASCADE foreign keys rather
+    // than loading the trip's graph. With async the trip is only hidden here and
+    // TripDeletionService purges it in the background.
+    public void deleteTrip(UUID tripId, User user, Long expectedVersion, boolean async) {
+        TripAccess access = tripAccessService.forTrip(tripId, user)
             .orElseThrow(() -> new RuntimeException("Trip not found"));
 
-        if (!trip.getUser().getId().equals(user.getId())) {
+        if (!access.isOwner()) {
             throw new AccessDeniedException("Only trip owner can delete the trip");
         }
 
-        tripRepository.delete(trip);
+        boolean deleted;
+        if (async) {
+            deleted = tripDeletionService.markDeleted(tripId, expectedVersion);
+            eventPublisher.publishEvent(new TripChangedEvent(tripId, user.getId()));
+        } else {
+            // Nobody can be looked up as a member once the rows are gone
+            List<UUID> userIds = tripMemberRepository.findUserIdsByTripIds(List.of(tripId));
+            deleted = tripDeletionService.delete(tripId, expectedVersion);
+            eventPublisher.publishEvent(new TripChangedEvent(tripId, user.getId(), userIds));
+        }
+        if (!deleted && expectedVersion != null) {
+            verifyVersion(tripRepository.findVersionById(tripId).orElse(null), expectedVersion);
+        }
+
+        // Bulk statements bypass the entity listeners
+        tripAccessService.evictTrip(tripId);
     }
 
     private void createDayPlansForTrip(Trip trip) {
-        LocalDate currentDate = trip.getStartDate();
-        while (!currentDate.isAfter(trip.getEndDate())) {
-            DayPlan dayPlan = new DayPlan(currentDate, trip);
-            dayPlanRepository.save(dayPlan);
-            currentDate = currentDate.plusDays(1);
+        if (createsDayPlansEagerly(trip)) {
+            dayPlanRepository.insertMissingDays(trip.getId(), trip.getStartDate(), trip.getEndDate());
+        }
+    }
+
+    private boolean createsDayPlansEagerly(Trip trip) {
+        return createsDayPlansEagerly(trip.getStartDate(), trip.getEndDate());
+    }
+
+    private boolean createsDayPlansEagerly(LocalDate startDate, LocalDate endDate) {
+        long days = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        return days <= eagerDayPlanMaxDays;
+    }
+
+    // trips has a CHECK on the order, which V8's daterange index relies on
+    private void verifyDates(TripCreateRequest request) {
+        if (request.getStartDate() != null && request.getEndDate() != null
+                && request.getEndDate().isBefore(request.getStartDate())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "End date must not be before start date");
+        }
+    }
+
+    private void verifyVersion(Long currentVersion, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Trip has been modified");
+        }
+    }
+
+    private void verifyCanView(UUID tripId, User user) {
+        TripAccess access = tripAccessService.forTrip(tripId, user)
+            .orElseThrow(() -> new RuntimeException("Trip not found"));
+
+        if (!access.canView()) {
+            throw new AccessDeniedException("You don't have access to this trip");
         }
     }
 
-    private boolean hasAccessToTrip(Trip trip, User user) {
-        // Owner has access
-        if (trip.getUser().getId().equals(user.getId())) {
-            return true;
+    // Cursor listings fetch one extra row to learn whether another page exists
+    // without counting; the total is only computed when explicitly requested.
+    private CursorPageResponse<TripResponse> toCursorPage(List<TripSummary> trips, int size, Long totalElements) {
+        String nextCursor = null;
+        if (trips.size() > size) {
+            trips = trips.subList(0, size);
+            TripSummary last = trips.get(size - 1);
+            nextCursor = new TripCursor(last.getStartDate(), last.getId()).encode();
+        }
+
+        Map<UUID, Set<TagResponse>> tagsByTrip = loadTags(trips);
+        List<TripResponse> content = new ArrayList<>(trips.size());
+        for (TripSummary summary : trips) {
+            content.add(toTripResponse(summary, tagsByTrip));
         }
+        return new CursorPageResponse<>(content, nextCursor, totalElements);
+    }
 
-        // Public trips are accessible
-        if (trip.getIsPublic()) {
-            return true;
+    private TripCursor decodeCursor(String cursor) {
+        try {
+            return TripCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
         }
+    }
 
-        // Check if user is a member
-        return tripMemberRepository.existsByTripAndUser(trip, user);
+    // Listing pages are built from projections plus one batched tag query, so the
+    // number of statements per page does not grow with the page size.
+    private Page<TripResponse> toTripResponsePage(Page<TripSummary> trips) {
+        Map<UUID, Set<TagResponse>> tagsByTrip = loadTags(trips.getContent());
+        return trips.map(summary -> toTripResponse(summary, tagsByTrip));
     }
 
-    private boolean canEditTrip(Trip trip, User user) {
-        // Owner can edit
-        if (trip.getUser().getId().equals(user.getId())) {
-            return true;
+    private Map<UUID, Set<TagResponse>> loadTags(List<TripSummary> trips) {
+        Map<UUID, Set<TagResponse>> tagsByTrip = new HashMap<>();
+        if (!trips.isEmpty()) {
+            List<UUID> tripIds = trips.stream().map(TripSummary::getId).toList();
+            for (TripTag tag : tripRepository.findTagsByTripIds(tripIds)) {
+                tagsByTrip.computeIfAbsent(tag.getTripId(), id -> new HashSet<>())
+                    .add(new TagResponse(tag.getTagId(), tag.getName(), tag.getColor()));
+            }
         }
+        return tagsByTrip;
+    }
+
+    private TripResponse toTripResponse(TripSummary summary, Map<UUID, Set<TagResponse>> tagsByTrip) {
+        TripResponse response = new TripResponse();
+        response.setId(summary.getId());
+        response.setTitle(summary.getTitle());
+        response.setDescription(summary.getDescription());
+        response.setStartDate(summary.getStartDate());
+        response.setEndDate(summary.getEndDate());
+        response.setDestination(summary.getDestination());
+        response.setBudget(summary.getBudget());
+        response.setIsPublic(summary.getIsPublic());
+        response.setCoverImageUrl(summary.getCoverImageUrl());
+        response.setTags(tagsByTrip.getOrDefault(summary.getId(), new HashSet<>()));
+        response.setMemberCount(summary.getMemberCount().intValue());
+        response.setCreatedAt(summary.getCreatedAt());
+        response.setUpdatedAt(summary.getUpdatedAt());
+        response.setVersion(summary.getVersion());
+        response.setOwner(new UserSummaryResponse(
+            summary.getOwnerId(),
+            summary.getOwnerFirstName(),
+            summary.getOwnerLastName(),
+            summary.getOwnerEmail(),
+            summary.getOwnerProfilePictureUrl()
+        ));
+        return response;
+    }
 
-        // Check if user is a member with edit permissions
-        Optional<TripMember> memberOpt = tripMemberRepository.findByTripAndUser(trip, user);
-        return memberOpt.isPresent() && memberOpt.get().getCanEdit();
+    private Set<TagResponse> convertTags(Set<Tag> tags) {
+        Set<TagResponse> responses = new HashSet<>();
+        for (Tag tag : tags) {
+            responses.add(new TagResponse(tag.getId(), tag.getName(), tag.getColor()));
+        }
+        return responses;
     }
 
-    private TripResponse convertToTripResponse(Trip trip) {
+    TripResponse convertToTripResponse(Trip trip) {
         TripResponse response = new TripResponse();
         response.setId(trip.getId());
         response.setTitle(trip.getTitle());
@@ -231,10 +496,11 @@ public class TripService {
         response.setBudget(trip.getBudget());
         response.setIsPublic(trip.getIsPublic());
         response.setCoverImageUrl(trip.getCoverImageUrl());
-        response.setTags(trip.getTags());
+        response.setTags(convertTags(trip.getTags()));
         response.setMemberCount(trip.getMembers().size());
         response.setCreatedAt(trip.getCreatedAt());
         response.setUpdatedAt(trip.getUpdatedAt());
+        response.setVersion(trip.getVersion());
 
         // Convert owner
         User owner = trip.getUser();
@@ -261,10 +527,11 @@ public class TripService {
         response.setBudget(trip.getBudget());
         response.setIsPublic(trip.getIsPublic());
         response.setCoverImageUrl(trip.getCoverImageUrl());
-        response.setTags(trip.getTags());
+        response.setTags(convertTags(trip.getTags()));
         response.setMemberCount(1); // Just the dummy user
         response.setCreatedAt(trip.getCreatedAt());
         response.setUpdatedAt(trip.getUpdatedAt());
+        response.setVersion(trip.getVersion());
 
         // Convert dummy user to owner
         UserSummaryResponse ownerResponse = new UserSummaryResponse(
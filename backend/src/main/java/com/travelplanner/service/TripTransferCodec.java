@@ -0,0 +1,112 @@
+package com.travelplanner.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileParser;
+import com.travelplanner.dto.transfer.TransferRecord;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Reads and writes trip export streams one record at a time, either as
+ * newline-delimited JSON or as a binary stream: a magic header followed by
+ * records framed as a 4 byte length and a Smile encoded payload.
+ */
+@Component
+public class TripTransferCodec {
+
+    private static final byte[] BINARY_MAGIC = { 'T', 'P', 'X', '1' };
+
+    private static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+
+    private final ObjectWriter jsonWriter;
+    private final ObjectReader jsonReader;
+    private final ObjectWriter smileWriter;
+    private final ObjectReader smileReader;
+
+    public TripTransferCodec(ObjectMapper objectMapper) {
+        // Frames carry the length, so the per-document Smile header is dropped
+        SmileFactory smileFactory = SmileFactory.builder()
+            .disable(SmileGenerator.Feature.WRITE_HEADER)
+            .disable(SmileParser.Feature.REQUIRE_HEADER)
+            .build();
+        ObjectMapper smileMapper = objectMapper.copyWith(smileFactory);
+
+        this.jsonWriter = objectMapper.writerFor(TransferRecord.class);
+        this.jsonReader = objectMapper.readerFor(TransferRecord.class);
+        this.smileWriter = smileMapper.writerFor(TransferRecord.class);
+        this.smileReader = smileMapper.readerFor(TransferRecord.class);
+    }
+
+    public RecordWriter writer(Format format, OutputStream out) throws IOException {
+        if (format == Format.NDJSON) {
+            return record -> {
+                out.write(jsonWriter.writeValueAsBytes(record));
+                out.write('\n');
+            };
+        }
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(BINARY_MAGIC);
+        return record -> {
+            byte[] payload = smileWriter.writeValueAsBytes(record);
+            data.writeInt(payload.length);
+            data.write(payload);
+        };
+    }
+
+    public RecordReader reader(Format format, InputStream in) throws IOException {
+        if (format == Format.NDJSON) {
+            MappingIterator<TransferRecord> records = jsonReader.readValues(in);
+            return () -> records.hasNextValue() ? records.nextValue() : null;
+        }
+
+        DataInputStream data = new DataInputStream(in);
+        byte[] magic = data.readNBytes(BINARY_MAGIC.length);
+        if (!Arrays.equals(magic, BINARY_MAGIC)) {
+            throw new IOException("Not a trip export stream");
+        }
+        return () -> {
+            int length;
+            try {
+                length = data.readInt();
+            } catch (EOFException e) {
+                return null;
+            }
+            if (length < 0 || length > MAX_RECORD_SIZE) {
+                throw new IOException("Invalid record length " + length);
+            }
+            byte[] payload = data.readNBytes(length);
+            if (payload.length < length) {
+                throw new IOException("Truncated record");
+            }
+            return smileReader.readValue(payload);
+        };
+    }
+
+    public enum Format {
+        NDJSON, BINARY
+    }
+
+    @FunctionalInterface
+    public interface RecordWriter {
+        void write(TransferRecord record) throws IOException;
+    }
+
+    // next() returns null once the stream is exhausted
+    @FunctionalInterface
+    public interface RecordReader {
+        TransferRecord next() throws IOException;
+    }
+}
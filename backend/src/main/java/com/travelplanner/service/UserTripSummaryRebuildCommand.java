@@ -0,0 +1,41 @@
+package com.travelplanner.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recomputes every user's trip summary and exits, for after a bulk load or a
+ * change to how summaries are computed:
+ *
+ *   java -jar travel-itinerary-planner.jar --rebuild-summaries --spring.main.web-application-type=none
+ */
+@Component
+public class UserTripSummaryRebuildCommand implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserTripSummaryRebuildCommand.class);
+
+    static final String OPTION = "rebuild-summaries";
+
+    @Autowired
+    private UserTripSummaryService userTripSummaryService;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(OPTION)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int users = userTripSummaryService.rebuildAll();
+        logger.info("Rebuilt trip summaries of {} users in {} ms", users, System.currentTimeMillis() - start);
+        System.exit(SpringApplication.exit(applicationContext, () -> 0));
+    }
+}
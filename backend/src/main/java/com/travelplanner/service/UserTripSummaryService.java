@@ -0,0 +1,210 @@
+package com.travelplanner.service;
+
+import com.travelplanner.dto.analytics.UserTripSummaryResponse;
+import com.travelplanner.entity.User;
+import com.travelplanner.repository.TripMemberRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Maintains user_trip_summaries, the dashboard figures over the trips a user
+ * owns or belongs to. TripService and ActivityService publish a
+ * TripChangedEvent for every write; after commit the trip is queued, and a
+ * scheduled flush works out whose summaries it touches and recomputes each of
+ * them once, however many writes arrived in between. A user reading their own
+ * summary while one of their writes is still queued gets it recomputed on the
+ * spot, so the author of a change always sees it.
+ *
+ * Reads are a primary key lookup. Rows computed on an earlier day, or whose
+ * next activity has started, are recomputed first, since trips move from
+ * upcoming to ongoing to past without any write.
+ */
+@Service
+public class UserTripSummaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserTripSummaryService.class);
+
+    private static final String SUMMARY_COLUMNS =
+        "upcoming_count, ongoing_count, past_count, total_budget, planned_spend, next_activity_id, " +
+        "next_activity_title, next_activity_trip_id, next_activity_starts_at, computed_on, updated_at";
+
+    private static final String REFRESH_SQL =
+        "WITH user_trips AS (" +
+        "SELECT t.id, t.start_date, t.end_date, t.budget FROM trips t " +
+        "WHERE t.deleted_at IS NULL AND (t.user_id = ? " +
+        "OR EXISTS (SELECT 1 FROM trip_members m WHERE m.trip_id = t.id AND m.user_id = ?))" +
+        "), totals AS (" +
+        "SELECT COUNT(*) FILTER (WHERE start_date > CURRENT_DATE) AS upcoming_count, " +
+        "COUNT(*) FILTER (WHERE start_date <= CURRENT_DATE AND end_date >= CURRENT_DATE) AS ongoing_count, " +
+        "COUNT(*) FILTER (WHERE end_date < CURRENT_DATE) AS past_count, " +
+        "COALESCE(SUM(budget), 0) AS total_budget FROM user_trips" +
+        "), spend AS (" +
+        "SELECT COALESCE(SUM(r.total_cost), 0) AS planned_spend " +
+        "FROM user_trips ut JOIN trip_cost_rollups r ON r.trip_id = ut.id" +
+        "), next_activity AS (" +
+        "SELECT a.id, a.title, dp.trip_id, dp.date + a.start_time AS starts_at " +
+        "FROM user_trips ut JOIN day_plans dp ON dp.trip_id = ut.id AND dp.date >= CURRENT_DATE " +
+        "JOIN activities a ON a.day_plan_id = dp.id " +
+        "WHERE dp.date + a.start_time > LOCALTIMESTAMP " +
+        "ORDER BY starts_at, a.id LIMIT 1" +
+        ") " +
+        "INSERT INTO user_trip_summaries (user_id, " + SUMMARY_COLUMNS + ") " +
+        "SELECT ?, t.upcoming_count, t.ongoing_count, t.past_count, t.total_budget, s.planned_spend, " +
+        "n.id, n.title, n.trip_id, n.starts_at, CURRENT_DATE, LOCALTIMESTAMP " +
+        "FROM totals t CROSS JOIN spend s LEFT JOIN next_activity n ON true " +
+        "ON CONFLICT (user_id) DO UPDATE SET " +
+        "upcoming_count = EXCLUDED.upcoming_count, ongoing_count = EXCLUDED.ongoing_count, " +
+        "past_count = EXCLUDED.past_count, total_budget = EXCLUDED.total_budget, " +
+        "planned_spend = EXCLUDED.planned_spend, next_activity_id = EXCLUDED.next_activity_id, " +
+        "next_activity_title = EXCLUDED.next_activity_title, " +
+        "next_activity_trip_id = EXCLUDED.next_activity_trip_id, " +
+        "next_activity_starts_at = EXCLUDED.next_activity_starts_at, " +
+        "computed_on = EXCLUDED.computed_on, updated_at = EXCLUDED.updated_at " +
+        "RETURNING " + SUMMARY_COLUMNS;
+
+    private static final String FIND_SQL =
+        "SELECT " + SUMMARY_COLUMNS + ", computed_on = CURRENT_DATE " +
+        "AND (next_activity_starts_at IS NULL OR next_activity_starts_at > LOCALTIMESTAMP) AS fresh " +
+        "FROM user_trip_summaries WHERE user_id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TripMemberRepository tripMemberRepository;
+
+    private final Counter events;
+
+    private final Counter refreshes;
+
+    // Both guarded by pendingTrips
+    private final Set<UUID> pendingTrips = new HashSet<>();
+
+    private final Set<UUID> pendingUsers = new HashSet<>();
+
+    public UserTripSummaryService(MeterRegistry meterRegistry) {
+        this.events = Counter.builder("travelplanner.summaries.events")
+            .description("Trip change events received by the summary read model")
+            .register(meterRegistry);
+        this.refreshes = Counter.builder("travelplanner.summaries.refreshes")
+            .description("User trip summaries recomputed")
+            .register(meterRegistry);
+    }
+
+    // Runs after commit, or straight away when published outside a transaction
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTripChanged(TripChangedEvent event) {
+        events.increment();
+        synchronized (pendingTrips) {
+            if (event.userIds().isEmpty()) {
+                pendingTrips.add(event.tripId());
+            } else {
+                pendingUsers.addAll(event.userIds());
+            }
+            if (event.actorId() != null) {
+                pendingUsers.add(event.actorId());
+            }
+        }
+    }
+
+    @Transactional
+    public UserTripSummaryResponse getSummary(User user) {
+        if (user == null) {
+            throw new AccessDeniedException("Authentication is required to view the trip summary");
+        }
+        boolean pending;
+        synchronized (pendingTrips) {
+            pending = pendingUsers.remove(user.getId());
+        }
+        if (!pending) {
+            List<UserTripSummaryResponse> stored = jdbcTemplate.query(FIND_SQL,
+                (rs, rowNum) -> rs.getBoolean("fresh") ? toResponse(rs) : null, user.getId());
+            if (!stored.isEmpty() && stored.get(0) != null) {
+                return stored.get(0);
+            }
+        }
+        return refresh(user.getId());
+    }
+
+    // Not transactional: every summary commits on its own, so one failure
+    // does not hold back the rest
+    @Scheduled(fixedDelayString = "${summaries.refresh-interval:1000}")
+    public void refreshPending() {
+        Set<UUID> tripIds;
+        Set<UUID> userIds;
+        synchronized (pendingTrips) {
+            if (pendingTrips.isEmpty() && pendingUsers.isEmpty()) {
+                return;
+            }
+            tripIds = new HashSet<>(pendingTrips);
+            userIds = new HashSet<>(pendingUsers);
+            pendingTrips.clear();
+            pendingUsers.clear();
+        }
+        if (!tripIds.isEmpty()) {
+            userIds.addAll(tripMemberRepository.findUserIdsByTripIds(tripIds));
+        }
+        for (UUID userId : userIds) {
+            try {
+                refresh(userId);
+            } catch (RuntimeException e) {
+                logger.warn("Could not refresh the trip summary of user {}", userId, e);
+            }
+        }
+    }
+
+    // Recomputes every user's summary from the source tables
+    public int rebuildAll() {
+        synchronized (pendingTrips) {
+            pendingTrips.clear();
+            pendingUsers.clear();
+        }
+        List<UUID> userIds = jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id", UUID.class);
+        for (UUID userId : userIds) {
+            refresh(userId);
+        }
+        return userIds.size();
+    }
+
+    private UserTripSummaryResponse refresh(UUID userId) {
+        refreshes.increment();
+        return jdbcTemplate.queryForObject(REFRESH_SQL, (rs, rowNum) -> toResponse(rs), userId, userId, userId);
+    }
+
+    private UserTripSummaryResponse toResponse(ResultSet rs) throws SQLException {
+        UserTripSummaryResponse response = new UserTripSummaryResponse();
+        response.setUpcomingTrips(rs.getInt("upcoming_count"));
+        response.setOngoingTrips(rs.getInt("ongoing_count"));
+        response.setPastTrips(rs.getInt("past_count"));
+        response.setTotalBudget(rs.getBigDecimal("total_budget"));
+        response.setPlannedSpend(rs.getBigDecimal("planned_spend"));
+        UUID nextActivityId = rs.getObject("next_activity_id", UUID.class);
+        if (nextActivityId != null) {
+            response.setNextActivity(new UserTripSummaryResponse.NextActivity(
+                nextActivityId,
+                rs.getString("next_activity_title"),
+                rs.getObject("next_activity_trip_id", UUID.class),
+                rs.getObject("next_activity_starts_at", LocalDateTime.class)
+            ));
+        }
+        response.setUpdatedAt(rs.getObject("updated_at", LocalDateTime.class));
+        return response;
+    }
+}
@@ -0,0 +1,42 @@
+-- Refresh trips.search_vector once per statement on trip_tags instead of once
+-- per row: a statement attaching N tags to a trip rewrote the trip row N times.
+-- Transition tables give the affected trip ids; PostgreSQL only allows them on
+-- single-event triggers, hence one trigger each for INSERT and DELETE.
+DROP TRIGGER refresh_trips_search_vector_on_trip_tags ON trip_tags;
+DROP FUNCTION refresh_trip_search_vector_from_tags();
+
+CREATE OR REPLACE FUNCTION refresh_trip_search_vector_from_tag_changes()
+RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE trips t SET search_vector = trip_search_vector(t.title, t.destination, t.description, t.id)
+    WHERE t.id IN (SELECT DISTINCT trip_id FROM changed_trip_tags)
+      AND t.search_vector IS DISTINCT FROM trip_search_vector(t.title, t.destination, t.description, t.id);
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER refresh_trips_search_vector_on_trip_tags_insert AFTER INSERT ON trip_tags
+    REFERENCING NEW TABLE AS changed_trip_tags
+    FOR EACH STATEMENT EXECUTE FUNCTION refresh_trip_search_vector_from_tag_changes();
+
+CREATE TRIGGER refresh_trips_search_vector_on_trip_tags_delete AFTER DELETE ON trip_tags
+    REFERENCING OLD TABLE AS changed_trip_tags
+    FOR EACH STATEMENT EXECUTE FUNCTION refresh_trip_search_vector_from_tag_changes();
+
+-- The search vector is derived data: refreshing it must not move updated_at,
+-- which feeds the itinerary ETag. Tag changes still reach the ETag through
+-- the tags it fingerprints.
+CREATE OR REPLACE FUNCTION update_trips_updated_at_column()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF to_jsonb(NEW) - 'search_vector' - 'updated_at' = to_jsonb(OLD) - 'search_vector' - 'updated_at' THEN
+        RETURN NEW;
+    END IF;
+    NEW.updated_at = CURRENT_TIMESTAMP;
+    RETURN NEW;
+END;
+$$ language 'plpgsql';
+
+DROP TRIGGER update_trips_updated_at ON trips;
+CREATE TRIGGER update_trips_updated_at BEFORE UPDATE ON trips
+    FOR EACH ROW EXECUTE FUNCTION update_trips_updated_at_column();
@@ -0,0 +1,21 @@
+-- Per trip, day and category cost rollups maintained by ActivityService.
+-- Activities without a category are stored under 'UNCATEGORIZED' so the
+-- category can take part in the primary key.
+CREATE TABLE trip_cost_rollups (
+    trip_id UUID NOT NULL,
+    date DATE NOT NULL,
+    category VARCHAR(50) NOT NULL,
+    total_cost DECIMAL(12, 2) NOT NULL DEFAULT 0,
+    activity_count INTEGER NOT NULL DEFAULT 0,
+    costed_count INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (trip_id, date, category),
+    FOREIGN KEY (trip_id) REFERENCES trips(id) ON DELETE CASCADE
+);
+
+-- Backfill from existing activities
+INSERT INTO trip_cost_rollups (trip_id, date, category, total_cost, activity_count, costed_count)
+SELECT dp.trip_id, dp.date, COALESCE(a.category, 'UNCATEGORIZED'),
+       COALESCE(SUM(a.cost), 0), COUNT(*), COUNT(a.cost)
+FROM activities a
+JOIN day_plans dp ON dp.id = a.day_plan_id
+GROUP BY dp.trip_id, dp.date, COALESCE(a.category, 'UNCATEGORIZED');
@@ -0,0 +1,3 @@
+-- Seek pagination over trips ordered by (start_date DESC, id DESC)
+CREATE INDEX idx_trips_start_date_id ON trips(start_date DESC, id DESC);
+CREATE INDEX idx_trips_user_start_date_id ON trips(user_id, start_date DESC, id DESC);
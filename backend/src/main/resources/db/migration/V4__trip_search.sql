@@ -0,0 +1,63 @@
+-- Discovery search over public trips: a weighted tsvector maintained by
+-- triggers (title/destination > tags > description) plus trigram indexes for
+-- typo tolerant matching on title and destination.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE trips ADD COLUMN search_vector tsvector;
+
+CREATE OR REPLACE FUNCTION trip_search_vector(p_title TEXT, p_destination TEXT, p_description TEXT, p_trip_id UUID)
+RETURNS tsvector AS $$
+    SELECT setweight(to_tsvector('simple', coalesce(p_title, '')), 'A') ||
+           setweight(to_tsvector('simple', coalesce(p_destination, '')), 'A') ||
+           setweight(to_tsvector('simple', coalesce((
+               SELECT string_agg(tg.name, ' ')
+               FROM trip_tags tt JOIN tags tg ON tg.id = tt.tag_id
+               WHERE tt.trip_id = p_trip_id), '')), 'B') ||
+           setweight(to_tsvector('simple', coalesce(p_description, '')), 'C')
+$$ LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION update_trip_search_vector()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.search_vector = trip_search_vector(NEW.title, NEW.destination, NEW.description, NEW.id);
+    RETURN NEW;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER update_trips_search_vector BEFORE INSERT OR UPDATE OF title, destination, description ON trips
+    FOR EACH ROW EXECUTE FUNCTION update_trip_search_vector();
+
+-- Tags are attached after the trip row is inserted, so refresh from the join table
+CREATE OR REPLACE FUNCTION refresh_trip_search_vector_from_tags()
+RETURNS TRIGGER AS $$
+DECLARE
+    v_trip_id UUID := CASE WHEN TG_OP = 'DELETE' THEN OLD.trip_id ELSE NEW.trip_id END;
+BEGIN
+    UPDATE trips SET search_vector = trip_search_vector(title, destination, description, id)
+    WHERE id = v_trip_id;
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER refresh_trips_search_vector_on_trip_tags AFTER INSERT OR DELETE ON trip_tags
+    FOR EACH ROW EXECUTE FUNCTION refresh_trip_search_vector_from_tags();
+
+CREATE OR REPLACE FUNCTION refresh_trip_search_vector_from_tag_rename()
+RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE trips t SET search_vector = trip_search_vector(t.title, t.destination, t.description, t.id)
+    FROM trip_tags tt WHERE tt.trip_id = t.id AND tt.tag_id = NEW.id;
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER refresh_trips_search_vector_on_tag_rename AFTER UPDATE OF name ON tags
+    FOR EACH ROW WHEN (OLD.name IS DISTINCT FROM NEW.name)
+    EXECUTE FUNCTION refresh_trip_search_vector_from_tag_rename();
+
+UPDATE trips SET search_vector = trip_search_vector(title, destination, description, id);
+
+-- Only public trips are searchable, so the indexes only cover those rows
+CREATE INDEX idx_trips_search_vector ON trips USING GIN (search_vector) WHERE is_public;
+CREATE INDEX idx_trips_title_trgm ON trips USING GIN (title gin_trgm_ops) WHERE is_public;
+CREATE INDEX idx_trips_destination_trgm ON trips USING GIN (destination gin_trgm_ops) WHERE is_public;
@@ -0,0 +1,3 @@
+-- Version counters for optimistic locking and ETags on trips and activities
+ALTER TABLE trips ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE activities ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,4 @@
+-- Trips deleted asynchronously are hidden at once and purged in the background
+ALTER TABLE trips ADD COLUMN deleted_at TIMESTAMP;
+
+CREATE INDEX idx_trips_deleted_at ON trips(deleted_at) WHERE deleted_at IS NOT NULL;
@@ -0,0 +1,30 @@
+-- V8's daterange(start_date, end_date) fails on a trip ending before it
+-- starts. Such rows are taken as swapped dates; the CHECK keeps new ones out.
+-- Versioned before V8 so the repair runs ahead of the index.
+--
+-- Trip creation never inserted day plans for these trips, and once valid a
+-- short trip is no longer filled in on read, so their days are inserted here.
+-- The repaired ids are reported in the Flyway log.
+DO $$
+DECLARE
+    repaired UUID[];
+BEGIN
+    WITH swapped AS (
+        UPDATE trips SET start_date = end_date, end_date = start_date
+        WHERE end_date < start_date
+        RETURNING id, start_date, end_date
+    ), days AS (
+        INSERT INTO day_plans (trip_id, date)
+        SELECT s.id, CAST(d AS DATE)
+        FROM swapped s, generate_series(s.start_date, s.end_date, INTERVAL '1 day') d
+        ON CONFLICT (trip_id, date) DO NOTHING
+    )
+    SELECT array_agg(id) INTO repaired FROM swapped;
+
+    IF repaired IS NOT NULL THEN
+        RAISE WARNING 'Swapped start and end dates of % trips: %', cardinality(repaired), repaired;
+    END IF;
+END;
+$$;
+
+ALTER TABLE trips ADD CONSTRAINT chk_trips_date_order CHECK (end_date >= start_date);
@@ -0,0 +1,34 @@
+-- Absolute time slot of each timed activity, for overlap detection. An end
+-- time earlier than the start time runs past midnight into the next day.
+-- Maintained by a trigger because the date lives on day_plans.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE activities ADD COLUMN time_slot tsrange;
+
+CREATE OR REPLACE FUNCTION activity_time_slot(p_date DATE, p_start TIME, p_end TIME)
+RETURNS tsrange AS $$
+    SELECT CASE WHEN p_start IS NULL OR p_end IS NULL THEN NULL
+                ELSE tsrange(p_date + p_start,
+                             p_date + p_end + CASE WHEN p_end < p_start THEN INTERVAL '1 day' ELSE INTERVAL '0' END)
+           END
+$$ LANGUAGE sql IMMUTABLE;
+
+CREATE OR REPLACE FUNCTION update_activity_time_slot()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.time_slot = activity_time_slot((SELECT date FROM day_plans WHERE id = NEW.day_plan_id),
+                                       NEW.start_time, NEW.end_time);
+    RETURN NEW;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER update_activities_time_slot BEFORE INSERT OR UPDATE OF start_time, end_time, day_plan_id ON activities
+    FOR EACH ROW EXECUTE FUNCTION update_activity_time_slot();
+
+UPDATE activities a SET time_slot = activity_time_slot(dp.date, a.start_time, a.end_time)
+FROM day_plans dp WHERE dp.id = a.day_plan_id;
+
+-- Probes for one day plan's overlapping slots; the same operator classes
+-- would back EXCLUDE USING gist (day_plan_id WITH =, time_slot WITH &&)
+CREATE INDEX idx_activities_day_plan_time_slot ON activities USING GIST (day_plan_id, time_slot)
+    WHERE time_slot IS NOT NULL;
@@ -0,0 +1,6 @@
+-- Owner trips overlapping a calendar window. user_id leads (btree_gist, V7)
+-- so a probe only visits one user's trips; the expression must match the
+-- daterange(start_date, end_date, '[]') used by TripCalendarService.
+CREATE INDEX idx_trips_user_date_range ON trips
+    USING GIST (user_id, daterange(start_date, end_date, '[]'))
+    WHERE deleted_at IS NULL;
@@ -0,0 +1,19 @@
+-- Dashboard read model: one row per user over the trips they own or belong
+-- to, refreshed by UserTripSummaryService after trip and activity writes.
+-- computed_on and next_activity_starts_at let a read tell when the passage
+-- of time alone has made the row stale.
+CREATE TABLE user_trip_summaries (
+    user_id UUID PRIMARY KEY,
+    upcoming_count INTEGER NOT NULL DEFAULT 0,
+    ongoing_count INTEGER NOT NULL DEFAULT 0,
+    past_count INTEGER NOT NULL DEFAULT 0,
+    total_budget DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    planned_spend DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    next_activity_id UUID,
+    next_activity_title VARCHAR(255),
+    next_activity_trip_id UUID,
+    next_activity_starts_at TIMESTAMP,
+    computed_on DATE NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
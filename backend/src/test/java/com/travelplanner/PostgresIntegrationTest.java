@@ -0,0 +1,85 @@
+package com.travelplanner;
+
+import com.travelplanner.dto.trip.TripCreateRequest;
+import com.travelplanner.entity.User;
+import com.travelplanner.repository.UserRepository;
+import com.travelplanner.service.TripService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Boots the application with MockMvc against an embedded Postgres started from
+ * the binaries shipped with io.zonky.test:embedded-postgres, migrated by
+ * Flyway like any other database. The server is shared by every subclass and
+ * stopped when the JVM exits; tests create their own users and trips, with
+ * newUser and newTrip, instead of relying on a clean schema.
+ */
+@SpringBootTest(properties = {
+    "logging.level.com.travelplanner=INFO",
+    "logging.level.org.springframework.security=INFO",
+    // Summaries of changed trips are then only refreshed on read, so no
+    // background statements interfere with tests that count them
+    "summaries.refresh-interval=3600000"
+})
+@AutoConfigureMockMvc
+public abstract class PostgresIntegrationTest {
+
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    @Autowired
+    private UserRepository fixtureUsers;
+
+    @Autowired
+    private TripService fixtureTrips;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url",
+            () -> POSTGRES.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    // The prefix is the first name and starts the email, which is unique per call
+    protected User newUser(String prefix) {
+        User user = new User();
+        user.setFirstName(prefix);
+        user.setLastName("Test");
+        user.setEmail(prefix.toLowerCase() + "-" + UUID.randomUUID() + "@example.com");
+        user.setPassword("password");
+        return fixtureUsers.save(user);
+    }
+
+    protected UUID newTrip(User owner, LocalDate startDate, LocalDate endDate) {
+        TripCreateRequest trip = new TripCreateRequest();
+        trip.setTitle(owner.getFirstName() + " trip");
+        trip.setStartDate(startDate);
+        trip.setEndDate(endDate);
+        return fixtureTrips.createTrip(trip, owner).getId();
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ignored) {
+                    // The process is exiting anyway
+                }
+            }));
+            return postgres;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot start embedded Postgres", e);
+        }
+    }
+}
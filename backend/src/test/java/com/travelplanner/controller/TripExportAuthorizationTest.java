@@ -0,0 +1,42 @@
+package com.travelplanner.controller;
+
+import com.travelplanner.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Exports are refused before the streamed body and its headers are committed.
+ */
+class TripExportAuthorizationTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void anonymousExportIsRefusedUpFront() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/trips/export"))
+            .andExpect(request().asyncNotStarted())
+            .andReturn();
+
+        assertThat(result.getResponse().getStatus()).isIn(401, 403);
+        assertThat(result.getResponse().getContentType()).doesNotContain("ndjson");
+    }
+
+    @Test
+    void ownExportStreams() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/trips/export").with(user(newUser("Exporter"))))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,158 @@
+package com.travelplanner.metrics;
+
+import com.travelplanner.PostgresIntegrationTest;
+import com.travelplanner.dto.activity.ActivityCreateRequest;
+import com.travelplanner.dto.dayplan.DayPlanResponse;
+import com.travelplanner.dto.trip.TripCreateRequest;
+import com.travelplanner.dto.trip.TripResponse;
+import com.travelplanner.entity.Activity;
+import com.travelplanner.entity.User;
+import com.travelplanner.service.ActivityService;
+import com.travelplanner.service.TripAccessService;
+import com.travelplanner.service.TripService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.travelplanner.metrics.QueryCountAssertions.assertStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the statement count of the endpoints that have an entry under
+ * queries.budget, each on a trip of its own so no cache is warm, and checks
+ * that the pinned count fits the configured budget. A change that adds a
+ * query fails here with the SQL that ran.
+ */
+class QueryBudgetEndpointsTest extends PostgresIntegrationTest {
+
+    private static final int DAYS = 3;
+
+    private static final int ACTIVITIES_PER_DAY = 2;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private QueryBudgetProperties budget;
+
+    @Autowired
+    private TripService tripService;
+
+    @Autowired
+    private ActivityService activityService;
+
+    @Autowired
+    private TripAccessService tripAccessService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+
+    private UUID tripId;
+
+    @BeforeEach
+    void seedTrip() {
+        owner = newUser("Budget");
+
+        TripCreateRequest trip = new TripCreateRequest();
+        trip.setTitle("Budget trip");
+        trip.setDestination("Lisbon");
+        trip.setStartDate(LocalDate.of(2030, 5, 1));
+        trip.setEndDate(LocalDate.of(2030, 5, DAYS));
+        trip.setTagNames(Set.of("food", "budget-" + UUID.randomUUID()));
+        TripResponse created = tripService.createTrip(trip, owner);
+        tripId = created.getId();
+
+        List<DayPlanResponse> dayPlans = tripService.getDayPlans(tripId, owner);
+        for (DayPlanResponse dayPlan : dayPlans) {
+            for (int i = 0; i < ACTIVITIES_PER_DAY; i++) {
+                ActivityCreateRequest activity = new ActivityCreateRequest();
+                activity.setTitle("Activity " + i);
+                activity.setStartTime(LocalTime.of(9 + 2 * i, 0));
+                activity.setEndTime(LocalTime.of(10 + 2 * i, 0));
+                activity.setCost(BigDecimal.valueOf(10 + i));
+                activity.setCategory(i == 0 ? Activity.ActivityCategory.DINING : null);
+                activityService.createActivity(dayPlan.getId(), activity, owner);
+            }
+        }
+
+        // Seeding went through the access check and the second-level cache
+        tripAccessService.evictTrip(tripId);
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void listTrips() {
+        assertWithinBudget("GET /api/trips", 2, () ->
+            mockMvc.perform(get("/api/trips").param("size", "1000").with(user(owner))).andExpect(status().isOk()));
+    }
+
+    @Test
+    void listTripsByCursor() {
+        assertWithinBudget("GET /api/trips/cursor", 2, () ->
+            mockMvc.perform(get("/api/trips/cursor").with(user(owner))).andExpect(status().isOk()));
+    }
+
+    @Test
+    void getTrip() {
+        assertWithinBudget("GET /api/trips/{tripId}", 6, () ->
+            mockMvc.perform(get("/api/trips/{tripId}", tripId).with(user(owner))).andExpect(status().isOk()));
+    }
+
+    @Test
+    void getItinerary() {
+        assertWithinBudget("GET /api/trips/{tripId}/itinerary", 6, () ->
+            mockMvc.perform(get("/api/trips/{tripId}/itinerary", tripId).with(user(owner))).andExpect(status().isOk()));
+    }
+
+    @Test
+    void getCostBreakdown() {
+        assertWithinBudget("GET /api/analytics/trips/{tripId}/cost-breakdown", 2, () ->
+            mockMvc.perform(get("/api/analytics/trips/{tripId}/cost-breakdown", tripId).with(user(owner)))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void streamActivities() {
+        // The body is written on the async executor and still counts
+        assertWithinBudget("GET /api/trips/{tripId}/activities", 2, () -> {
+            MvcResult started = mockMvc.perform(get("/api/trips/{tripId}/activities", tripId).with(user(owner)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            return mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+        });
+    }
+
+    @Test
+    void exportTrip() {
+        assertWithinBudget("GET /api/trips/{tripId}/export", 7, () -> {
+            MvcResult started = mockMvc.perform(get("/api/trips/{tripId}/export", tripId).with(user(owner)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            return mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+        });
+    }
+
+    private void assertWithinBudget(String endpoint, int expected, ThrowingSupplier<?> request) {
+        assertThat(budget.getEndpoints()).containsKey(endpoint);
+        assertThat(expected).isLessThanOrEqualTo(budget.maxStatementsFor(endpoint));
+        assertStatements(expected, request);
+    }
+}
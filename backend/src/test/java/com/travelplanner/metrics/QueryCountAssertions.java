@@ -0,0 +1,51 @@
+package com.travelplanner.metrics;
+
+import org.junit.jupiter.api.function.ThrowingSupplier;
+import org.opentest4j.AssertionFailedError;
+
+/**
+ * Asserts how many JDBC statements an action runs, for pinning the query count
+ * of a controller method in a MockMvc test:
+ *
+ *   assertMaxStatements(5, () -> mockMvc.perform(get("/api/trips/{id}/itinerary", tripId)));
+ *
+ * Requires the application's DataSource, which MetricsConfig wraps in a
+ * QueryCountingDataSource. Statements run on other threads are not seen,
+ * except those of a streamed response body, which joins the request's scopes.
+ */
+public final class QueryCountAssertions {
+
+    private QueryCountAssertions() {
+    }
+
+    public static <T> T assertStatements(long expected, ThrowingSupplier<T> action) {
+        return check(action, expected, expected);
+    }
+
+    public static <T> T assertMaxStatements(long max, ThrowingSupplier<T> action) {
+        return check(action, 0, max);
+    }
+
+    private static <T> T check(ThrowingSupplier<T> action, long min, long max) {
+        T result;
+        try (SqlStatementRecorder.Scope scope = SqlStatementRecorder.open(true)) {
+            try {
+                result = action.get();
+            } catch (Throwable e) {
+                throw new AssertionFailedError("Action failed after " + scope.getCount() + " statements", e);
+            }
+            if (scope.getCount() < min || scope.getCount() > max) {
+                String expected = min == max ? Long.toString(max) : "at most " + max;
+                StringBuilder message = new StringBuilder()
+                    .append("Expected ").append(expected).append(" statements but ")
+                    .append(scope.getCount()).append(" ran:");
+                int i = 1;
+                for (String sql : scope.getStatements()) {
+                    message.append(System.lineSeparator()).append(i++).append(". ").append(sql);
+                }
+                throw new AssertionFailedError(message.toString(), expected, scope.getCount());
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,109 @@
+package com.travelplanner.service;
+
+import com.travelplanner.PostgresIntegrationTest;
+import com.travelplanner.dto.activity.ActivityConflictResponse;
+import com.travelplanner.dto.activity.ActivityCreateRequest;
+import com.travelplanner.dto.activity.ActivityResponse;
+import com.travelplanner.dto.dayplan.DayPlanResponse;
+import com.travelplanner.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Overlapping time slots reported when an activity is saved and for whole
+ * trips by TRIP_CONFLICTS_SQL, including slots running past midnight.
+ */
+class ActivityConflictServiceTest extends PostgresIntegrationTest {
+
+    private static final LocalDate START = LocalDate.of(2039, 2, 1);
+
+    @Autowired
+    private ActivityConflictService activityConflictService;
+
+    @Autowired
+    private ActivityService activityService;
+
+    @Autowired
+    private TripService tripService;
+
+    private User owner;
+
+    private UUID tripId;
+
+    private List<DayPlanResponse> dayPlans;
+
+    @BeforeEach
+    void seedTrip() {
+        owner = newUser("Conflicts");
+        tripId = newTrip(owner, START, START.plusDays(2));
+        dayPlans = tripService.getDayPlans(tripId, owner);
+    }
+
+    @Test
+    void savedActivityListsTheSlotsItOverlaps() {
+        ActivityResponse morning = create(0, "Morning", 9, 11);
+        ActivityResponse brunch = create(0, "Brunch", 10, 12);
+        // Starts as the morning ends, so it only meets brunch
+        ActivityResponse lunch = create(0, "Lunch", 11, 12);
+        ActivityResponse overnight = create(0, "Night train", 23, 2);
+        ActivityResponse early = create(1, "Early start", 1, 3);
+
+        assertThat(morning.getConflicts()).isEmpty();
+        assertThat(brunch.getConflicts())
+            .extracting(ActivityConflictResponse::getConflictingActivityId, ActivityConflictResponse::getOverlapStart,
+                ActivityConflictResponse::getOverlapEnd)
+            .containsExactly(tuple(morning.getId(), at(0, 10), at(0, 11)));
+        assertThat(lunch.getConflicts())
+            .extracting(ActivityConflictResponse::getConflictingActivityId)
+            .containsExactly(brunch.getId());
+        assertThat(overnight.getConflicts()).isEmpty();
+        assertThat(early.getConflicts())
+            .extracting(ActivityConflictResponse::getConflictingActivityId, ActivityConflictResponse::getOverlapStart,
+                ActivityConflictResponse::getOverlapEnd)
+            .containsExactly(tuple(overnight.getId(), at(1, 1), at(1, 2)));
+    }
+
+    @Test
+    void tripConflictsReportEachPairOnce() {
+        ActivityResponse morning = create(0, "Morning", 9, 11);
+        ActivityResponse brunch = create(0, "Brunch", 10, 12);
+        ActivityResponse lunch = create(0, "Lunch", 11, 12);
+        ActivityResponse overnight = create(0, "Night train", 23, 2);
+        ActivityResponse early = create(1, "Early start", 1, 3);
+        create(1, "Museum", 9, 12);
+        create(2, "Late night", 23, 1);
+
+        List<ActivityConflictResponse> conflicts = activityConflictService.findTripConflicts(tripId, owner);
+
+        assertThat(conflicts)
+            .extracting(conflict -> Set.of(conflict.getActivityId(), conflict.getConflictingActivityId()),
+                ActivityConflictResponse::getOverlapStart, ActivityConflictResponse::getOverlapEnd)
+            .containsExactly(
+                tuple(Set.of(morning.getId(), brunch.getId()), at(0, 10), at(0, 11)),
+                tuple(Set.of(brunch.getId(), lunch.getId()), at(0, 11), at(0, 12)),
+                tuple(Set.of(overnight.getId(), early.getId()), at(1, 1), at(1, 2)));
+    }
+
+    private ActivityResponse create(int day, String title, int startHour, int endHour) {
+        ActivityCreateRequest activity = new ActivityCreateRequest();
+        activity.setTitle(title);
+        activity.setStartTime(LocalTime.of(startHour, 0));
+        activity.setEndTime(LocalTime.of(endHour, 0));
+        return activityService.createActivity(dayPlans.get(day).getId(), activity, owner);
+    }
+
+    private static LocalDateTime at(int day, int hour) {
+        return START.plusDays(day).atTime(hour, 0);
+    }
+}
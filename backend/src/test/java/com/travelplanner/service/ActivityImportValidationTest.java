@@ -0,0 +1,104 @@
+package com.travelplanner.service;
+
+import com.travelplanner.PostgresIntegrationTest;
+import com.travelplanner.dto.activity.ActivityBulkImportRequest;
+import com.travelplanner.dto.activity.ActivityBulkImportResponse;
+import com.travelplanner.dto.activity.ActivityCreateRequest;
+import com.travelplanner.entity.User;
+import com.travelplanner.repository.TagRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Invalid entries of a bulk import are reported per row while the valid ones
+ * are still inserted.
+ */
+class ActivityImportValidationTest extends PostgresIntegrationTest {
+
+    private static final LocalDate DAY = LocalDate.of(2034, 9, 1);
+
+    @Autowired
+    private ActivityImportService activityImportService;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    private User owner;
+
+    private UUID tripId;
+
+    private String tagName;
+
+    @BeforeEach
+    void seedTrip() {
+        owner = newUser("ImportValidation");
+        tripId = newTrip(owner, DAY, DAY.plusDays(1));
+        tagName = "import-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Test
+    void overLongValuesFailTheirRowOnly() {
+        ActivityCreateRequest longTitle = activity("x".repeat(256));
+        ActivityCreateRequest longLocation = activity("Long location");
+        longLocation.setLocation("x".repeat(256));
+        ActivityCreateRequest longBookingUrl = activity("Long booking URL");
+        longBookingUrl.setBookingUrl("https://example.com/" + "x".repeat(500));
+        ActivityCreateRequest longTagName = activity("Long tag name");
+        longTagName.setTagNames(Set.of(tagName, "x".repeat(51)));
+        ActivityCreateRequest largeCost = activity("Large cost");
+        largeCost.setCost(new BigDecimal("123456789.00"));
+        ActivityCreateRequest valid = activity("Valid");
+        valid.setTagNames(Set.of(tagName));
+        valid.setCost(new BigDecimal("12345678.99"));
+
+        ActivityBulkImportResponse response = importActivities(Map.of(DAY,
+            List.of(valid, longTitle, longLocation, longBookingUrl, longTagName, largeCost)));
+
+        assertThat(response.getImported()).isEqualTo(1);
+        assertThat(response.getFailures())
+            .extracting(ActivityBulkImportResponse.Failure::getIndex, ActivityBulkImportResponse.Failure::getMessage)
+            .containsExactly(
+                tuple(1, "title size must be between 0 and 255"),
+                tuple(2, "location size must be between 0 and 255"),
+                tuple(3, "bookingUrl size must be between 0 and 500"),
+                tuple(4, "tagNames[].<iterable element> size must be between 0 and 50"),
+                tuple(5, "cost numeric value out of bounds (<8 digits>.<2 digits> expected)"));
+        assertThat(tagRepository.findByName(tagName)).isPresent();
+    }
+
+    @Test
+    void dayWithoutActivitiesIsSkipped() {
+        Map<LocalDate, List<ActivityCreateRequest>> activitiesByDate = new HashMap<>();
+        activitiesByDate.put(DAY, null);
+        activitiesByDate.put(DAY.plusDays(1), List.of(activity("Valid")));
+
+        ActivityBulkImportResponse response = importActivities(activitiesByDate);
+
+        assertThat(response.getImported()).isEqualTo(1);
+        assertThat(response.getFailures()).isEmpty();
+    }
+
+    private ActivityBulkImportResponse importActivities(Map<LocalDate, List<ActivityCreateRequest>> activitiesByDate) {
+        ActivityBulkImportRequest request = new ActivityBulkImportRequest();
+        request.setActivitiesByDate(activitiesByDate);
+        return activityImportService.importActivities(tripId, request, owner);
+    }
+
+    private static ActivityCreateRequest activity(String title) {
+        ActivityCreateRequest activity = new ActivityCreateRequest();
+        activity.setTitle(title);
+        return activity;
+    }
+}
@@ -0,0 +1,186 @@
+package com.travelplanner.service;
+
+import com.travelplanner.PostgresIntegrationTest;
+import com.travelplanner.dto.activity.ActivityBulkImportRequest;
+import com.travelplanner.dto.activity.ActivityBulkImportResponse;
+import com.travelplanner.dto.activity.ActivityCreateRequest;
+import com.travelplanner.dto.activity.ActivityResponse;
+import com.travelplanner.dto.analytics.CostBreakdownResponse;
+import com.travelplanner.dto.dayplan.DayPlanResponse;
+import com.travelplanner.entity.Activity;
+import com.travelplanner.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.travelplanner.metrics.QueryCountAssertions.assertStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cost breakdown of a trip with thousands of activities, read from
+ * trip_cost_rollups, against the same figures aggregated straight from the
+ * activities table, both after a bulk import and after incremental edits.
+ */
+class CostBreakdownLargeTripTest extends PostgresIntegrationTest {
+
+    private static final int DAYS = 60;
+
+    private static final int ACTIVITIES_PER_DAY = 25;
+
+    private static final LocalDate START = LocalDate.of(2032, 3, 1);
+
+    private static final String REFERENCE_SQL =
+        "SELECT dp.date, COALESCE(a.category, '" + CostRollupService.UNCATEGORIZED + "') AS category, " +
+        "COALESCE(SUM(a.cost), 0) AS total_cost, COUNT(*) AS activity_count, COUNT(a.cost) AS costed_count " +
+        "FROM activities a JOIN day_plans dp ON dp.id = a.day_plan_id WHERE dp.trip_id = ? " +
+        "GROUP BY dp.date, a.category";
+
+    @Autowired
+    private TripService tripService;
+
+    @Autowired
+    private ActivityService activityService;
+
+    @Autowired
+    private ActivityImportService activityImportService;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private CostRollupService costRollupService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+
+    private UUID tripId;
+
+    private BigDecimal seededCost;
+
+    private int seededWithCost;
+
+    @BeforeEach
+    void seedLargeTrip() {
+        owner = newUser("Large");
+        tripId = newTrip(owner, START, START.plusDays(DAYS - 1));
+
+        Activity.ActivityCategory[] categories = Activity.ActivityCategory.values();
+        Map<LocalDate, List<ActivityCreateRequest>> activitiesByDate = new LinkedHashMap<>();
+        seededCost = BigDecimal.ZERO;
+        seededWithCost = 0;
+        for (int day = 0; day < DAYS; day++) {
+            List<ActivityCreateRequest> activities = new ArrayList<>();
+            for (int i = 0; i < ACTIVITIES_PER_DAY; i++) {
+                int n = day * ACTIVITIES_PER_DAY + i;
+                ActivityCreateRequest activity = new ActivityCreateRequest();
+                activity.setTitle("Activity " + n);
+                activity.setStartTime(LocalTime.of(0, 0).plusMinutes(i * 57L));
+                activity.setEndTime(LocalTime.of(0, 0).plusMinutes(i * 57L + 45));
+                // Every fifth activity has no cost and every seventh no category
+                if (n % 5 != 0) {
+                    BigDecimal cost = BigDecimal.valueOf(n % 9000 + 1, 2);
+                    activity.setCost(cost);
+                    seededCost = seededCost.add(cost);
+                    seededWithCost++;
+                }
+                activity.setCategory(n % 7 == 0 ? null : categories[n % categories.length]);
+                activities.add(activity);
+            }
+            activitiesByDate.put(START.plusDays(day), activities);
+        }
+        ActivityBulkImportRequest request = new ActivityBulkImportRequest();
+        request.setActivitiesByDate(activitiesByDate);
+        ActivityBulkImportResponse imported = activityImportService.importActivities(tripId, request, owner);
+        assertThat(imported.getFailures()).isEmpty();
+        assertThat(imported.getImported()).isEqualTo(DAYS * ACTIVITIES_PER_DAY);
+    }
+
+    @Test
+    void breakdownOfImportedTripMatchesActivities() {
+        CostBreakdownResponse breakdown = analyticsService.getTripCostBreakdown(tripId, owner);
+
+        assertThat(breakdown.getTotalActivities()).isEqualTo(DAYS * ACTIVITIES_PER_DAY);
+        assertThat(breakdown.getActivitiesWithCost()).isEqualTo(seededWithCost);
+        assertThat(breakdown.getTotalCost()).isEqualByComparingTo(seededCost);
+        assertThat(breakdown.getCostByDay()).hasSize(DAYS);
+        assertMatchesReference(breakdown);
+    }
+
+    @Test
+    void breakdownFollowsIncrementalEdits() {
+        List<DayPlanResponse> dayPlans = tripService.getDayPlans(tripId, owner);
+
+        ActivityCreateRequest added = new ActivityCreateRequest();
+        added.setTitle("Added");
+        added.setCost(new BigDecimal("123.45"));
+        added.setCategory(Activity.ActivityCategory.DINING);
+        ActivityResponse created = activityService.createActivity(dayPlans.get(3).getId(), added, owner);
+
+        ActivityCreateRequest changed = new ActivityCreateRequest();
+        changed.setTitle("Changed");
+        changed.setCost(new BigDecimal("10.00"));
+        activityService.updateActivity(created.getId(), changed, owner, created.getVersion());
+
+        List<ActivityResponse> lastDay = activityService.getActivitiesByDayPlan(dayPlans.get(DAYS - 1).getId(), owner);
+        for (ActivityResponse activity : lastDay) {
+            activityService.deleteActivity(activity.getId(), owner, activity.getVersion());
+        }
+
+        CostBreakdownResponse breakdown = analyticsService.getTripCostBreakdown(tripId, owner);
+
+        assertThat(breakdown.getTotalActivities()).isEqualTo((DAYS - 1) * ACTIVITIES_PER_DAY + 1);
+        assertThat(breakdown.getCostByDay()).hasSize(DAYS - 1);
+        assertMatchesReference(breakdown);
+    }
+
+    @Test
+    void rollupsAreReadWithOneStatementWhateverTheTripSize() {
+        List<CostRollupService.Rollup> rollups = assertStatements(1, () -> costRollupService.findByTripId(tripId));
+
+        // One row per day and category, not per activity
+        assertThat(rollups.size()).isLessThanOrEqualTo(DAYS * (Activity.ActivityCategory.values().length + 1));
+        assertThat(rollups.stream().mapToInt(CostRollupService.Rollup::activityCount).sum())
+            .isEqualTo(DAYS * ACTIVITIES_PER_DAY);
+    }
+
+    private void assertMatchesReference(CostBreakdownResponse breakdown) {
+        List<CostRollupService.Rollup> reference = jdbcTemplate.query(REFERENCE_SQL, (rs, rowNum) ->
+            new CostRollupService.Rollup(rs.getObject("date", LocalDate.class), rs.getString("category"),
+                rs.getBigDecimal("total_cost"), rs.getInt("activity_count"), rs.getInt("costed_count")), tripId);
+        CostBreakdownResponse expected = AnalyticsService.summarize(reference);
+
+        assertThat(normalized(costRollupService.findByTripId(tripId))).containsExactlyInAnyOrderElementsOf(normalized(reference));
+        assertThat(breakdown.getTotalCost()).isEqualByComparingTo(expected.getTotalCost());
+        assertThat(breakdown.getTotalActivities()).isEqualTo(expected.getTotalActivities());
+        assertThat(breakdown.getActivitiesWithCost()).isEqualTo(expected.getActivitiesWithCost());
+        assertThat(normalized(breakdown.getCostByDay())).isEqualTo(normalized(expected.getCostByDay()));
+        assertThat(normalized(breakdown.getCostByCategory())).isEqualTo(normalized(expected.getCostByCategory()));
+    }
+
+    // Amounts compared by value, whatever their scale
+    private static List<CostRollupService.Rollup> normalized(List<CostRollupService.Rollup> rollups) {
+        return rollups.stream()
+            .map(rollup -> new CostRollupService.Rollup(rollup.date(), rollup.category(),
+                rollup.totalCost().stripTrailingZeros(), rollup.activityCount(), rollup.costedCount()))
+            .toList();
+    }
+
+    private static <K> Map<K, BigDecimal> normalized(Map<K, BigDecimal> amounts) {
+        Map<K, BigDecimal> normalized = new HashMap<>();
+        amounts.forEach((key, amount) -> normalized.put(key, amount.stripTrailingZeros()));
+        return normalized;
+    }
+}
@@ -0,0 +1,162 @@
+package com.travelplanner.service;
+
+import com.travelplanner.PostgresIntegrationTest;
+import com.travelplanner.entity.Tag;
+import com.travelplanner.entity.TripMember;
+import com.travelplanner.entity.User;
+import com.travelplanner.repository.TagRepository;
+import com.travelplanner.repository.TripMemberRepository;
+import com.travelplanner.repository.TripRepository;
+import com.travelplanner.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cached users, tags and trip members are not served stale after the writes
+ * that change them, whether made through JPA or with JDBC followed by
+ * SecondLevelCacheEvictor. Each test first checks that the read it repeats is
+ * actually answered from the cache.
+ */
+class SecondLevelCacheEvictionTest extends PostgresIntegrationTest {
+
+    private static final LocalDate START = LocalDate.of(2037, 5, 1);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private TripMemberRepository tripMemberRepository;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private TripImportService tripImportService;
+
+    @Autowired
+    private TagResolver tagResolver;
+
+    @Autowired
+    private TripDeletionService tripDeletionService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+
+    private String tagName;
+
+    @BeforeEach
+    void seedOwner() {
+        owner = newUser("Cache");
+        tagName = "cache-" + UUID.randomUUID();
+    }
+
+    @Test
+    void findByEmailSeesJpaUpdate() {
+        String email = owner.getEmail();
+        assertThat(cached(() -> userRepository.findByEmail(email)).orElseThrow().getFirstName()).isEqualTo("Cache");
+
+        transactionTemplate.executeWithoutResult(status ->
+            userRepository.findById(owner.getId()).orElseThrow().setFirstName("Renamed"));
+
+        assertThat(userRepository.findByEmail(email).orElseThrow().getFirstName()).isEqualTo("Renamed");
+    }
+
+    @Test
+    void findByNameSeesJpaUpdate() {
+        Tag tag = tagRepository.save(new Tag(tagName, null));
+        assertThat(cached(() -> tagRepository.findByName(tagName)).orElseThrow().getColor()).isNull();
+
+        transactionTemplate.executeWithoutResult(status ->
+            tagRepository.findById(tag.getId()).orElseThrow().setColor("#111111"));
+
+        assertThat(tagRepository.findByName(tagName).orElseThrow().getColor()).isEqualTo("#111111");
+    }
+
+    @Test
+    void findByNameSeesColourSetByImport() throws IOException {
+        tagRepository.save(new Tag(tagName, null));
+        assertThat(cached(() -> tagRepository.findByName(tagName)).orElseThrow().getColor()).isNull();
+
+        String export =
+            "{\"type\":\"tag\",\"name\":\"" + tagName + "\",\"color\":\"#222222\"}\n" +
+            "{\"type\":\"trip\",\"id\":\"" + UUID.randomUUID() + "\",\"title\":\"Imported trip\"," +
+            "\"startDate\":\"2037-05-01\",\"endDate\":\"2037-05-02\",\"isPublic\":false}\n";
+        tripImportService.importTrips(new ByteArrayInputStream(export.getBytes(StandardCharsets.UTF_8)),
+            TripTransferCodec.Format.NDJSON, owner);
+
+        assertThat(tagRepository.findByName(tagName).orElseThrow().getColor()).isEqualTo("#222222");
+    }
+
+    @Test
+    void findByNameSeesTagInsertedByTagResolver() {
+        assertThat(cached(() -> tagRepository.findByName(tagName))).isEmpty();
+
+        tagResolver.resolve(List.of(tagName));
+
+        assertThat(tagRepository.findByName(tagName)).isPresent();
+    }
+
+    @Test
+    void membersAreGoneAfterTripDelete() {
+        UUID tripId = newTrip(owner, START, START.plusDays(2));
+        UUID memberId = member(tripId);
+        assertThat(cached(() -> tripMemberRepository.findById(memberId))).isPresent();
+
+        assertThat(tripDeletionService.delete(tripId, null)).isTrue();
+
+        assertThat(tripMemberRepository.findById(memberId)).isEmpty();
+    }
+
+    @Test
+    void membersAreGoneAfterPurge() {
+        UUID tripId = newTrip(owner, START, START.plusDays(2));
+        UUID memberId = member(tripId);
+        assertThat(tripDeletionService.markDeleted(tripId, null)).isTrue();
+        assertThat(cached(() -> tripMemberRepository.findById(memberId))).isPresent();
+
+        tripDeletionService.purge();
+
+        assertThat(tripRepository.existsById(tripId)).isFalse();
+        assertThat(tripMemberRepository.findById(memberId)).isEmpty();
+    }
+
+    // Reads twice and checks the second read hit the entity or query cache
+    private <T> T cached(Supplier<T> read) {
+        read.get();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long hits = statistics.getSecondLevelCacheHitCount() + statistics.getQueryCacheHitCount();
+        T result = read.get();
+        assertThat(statistics.getSecondLevelCacheHitCount() + statistics.getQueryCacheHitCount()).isGreaterThan(hits);
+        return result;
+    }
+
+    private UUID member(UUID tripId) {
+        User member = newUser("Member");
+        return transactionTemplate.execute(status -> tripMemberRepository.save(
+            new TripMember(tripRepository.findById(tripId).orElseThrow(), member, TripMember.MemberRole.MEMBER)
+        ).getId());
+    }
+}
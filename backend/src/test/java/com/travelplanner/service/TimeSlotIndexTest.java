@@ -0,0 +1,88 @@
+package com.travelplanner.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Half-open overlap queries on TimeSlotIndex, checked by hand on the edge
+ * cases and against a scan of every slot on random ones.
+ */
+class TimeSlotIndexTest {
+
+    private static final LocalDateTime DAY = LocalDate.of(2040, 1, 1).atStartOfDay();
+
+    @Test
+    void emptySlotsAndRangesOverlapNothing() {
+        TimeSlotIndex<String> index = new TimeSlotIndex<>(List.of(
+            slot("empty", 10, 10), slot("morning", 9, 12)));
+
+        assertThat(values(index.overlapping(at(10), at(11)))).containsExactly("morning");
+        assertThat(index.overlapping(at(10), at(10))).isEmpty();
+        assertThat(new TimeSlotIndex<String>(List.of()).overlapping(at(0), at(24))).isEmpty();
+    }
+
+    @Test
+    void touchingSlotsDoNotOverlap() {
+        TimeSlotIndex<String> index = new TimeSlotIndex<>(List.of(
+            slot("before", 8, 10), slot("after", 11, 13)));
+
+        assertThat(index.overlapping(at(10), at(11))).isEmpty();
+        assertThat(values(index.overlapping(at(9), at(12)))).containsExactlyInAnyOrder("before", "after");
+    }
+
+    @Test
+    void overnightSlotOverlapsTheNextMorning() {
+        TimeSlotIndex<String> index = new TimeSlotIndex<>(List.of(
+            slot("overnight", 23, 26), slot("breakfast", 32, 33)));
+
+        assertThat(values(index.overlapping(at(25), at(27)))).containsExactly("overnight");
+        assertThat(index.overlapping(at(26), at(32))).isEmpty();
+    }
+
+    @Test
+    void randomQueriesMatchAScanOfEverySlot() {
+        Random random = new Random(22);
+        for (int round = 0; round < 200; round++) {
+            List<TimeSlotIndex.Slot<String>> slots = new ArrayList<>();
+            for (int i = random.nextInt(40); i > 0; i--) {
+                int start = random.nextInt(72 * 60);
+                slots.add(new TimeSlotIndex.Slot<>(minutes(start), minutes(start + random.nextInt(6 * 60)), "slot " + i));
+            }
+            TimeSlotIndex<String> index = new TimeSlotIndex<>(slots);
+
+            for (int query = 0; query < 20; query++) {
+                LocalDateTime start = minutes(random.nextInt(72 * 60));
+                LocalDateTime end = start.plusMinutes(random.nextInt(6 * 60));
+                List<TimeSlotIndex.Slot<String>> expected = slots.stream()
+                    .filter(slot -> slot.start().isBefore(slot.end()) && start.isBefore(end)
+                        && slot.start().isBefore(end) && slot.end().isAfter(start))
+                    .toList();
+
+                assertThat(index.overlapping(start, end)).containsExactlyInAnyOrderElementsOf(expected);
+            }
+        }
+    }
+
+    private static TimeSlotIndex.Slot<String> slot(String name, int startHour, int endHour) {
+        return new TimeSlotIndex.Slot<>(at(startHour), at(endHour), name);
+    }
+
+    private static LocalDateTime at(int hour) {
+        return DAY.plusHours(hour);
+    }
+
+    private static LocalDateTime minutes(int minutes) {
+        return DAY.plusMinutes(minutes);
+    }
+
+    private static List<String> values(List<TimeSlotIndex.Slot<String>> slots) {
+        return slots.stream().map(TimeSlotIndex.Slot::value).toList();
+    }
+}
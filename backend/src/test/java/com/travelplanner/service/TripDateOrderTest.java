@@ -0,0 +1,74 @@
+package com.travelplanner.service;
+
+import com.travelplanner.PostgresIntegrationTest;
+import com.travelplanner.dto.trip.TripCreateRequest;
+import com.travelplanner.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Trips cannot end before they start, which the calendar's daterange index
+ * (V8) depends on.
+ */
+class TripDateOrderTest extends PostgresIntegrationTest {
+
+    private static final LocalDate START = LocalDate.of(2036, 2, 10);
+
+    @Autowired
+    private TripService tripService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+
+    @BeforeEach
+    void seedOwner() {
+        owner = newUser("DateOrder");
+    }
+
+    @Test
+    void createAndUpdateRejectAnEndBeforeTheStart() {
+        assertBadRequest(() -> tripService.createTrip(trip(START, START.minusDays(1)), owner));
+
+        UUID tripId = newTrip(owner, START, START);
+        assertBadRequest(() -> tripService.updateTrip(tripId, trip(START, START.minusDays(3)), owner, null));
+        assertThat(jdbcTemplate.queryForObject("SELECT end_date FROM trips WHERE id = ?", LocalDate.class, tripId))
+            .isEqualTo(START);
+    }
+
+    @Test
+    void databaseRejectsAnEndBeforeTheStart() {
+        UUID tripId = newTrip(owner, START, START.plusDays(2));
+
+        assertThatThrownBy(() -> jdbcTemplate.update(
+                "UPDATE trips SET end_date = start_date - 1 WHERE id = ?", tripId))
+            .isInstanceOf(DataIntegrityViolationException.class)
+            .hasMessageContaining("chk_trips_date_order");
+    }
+
+    private static void assertBadRequest(Runnable call) {
+        assertThatThrownBy(call::run)
+            .isInstanceOfSatisfying(ResponseStatusException.class,
+                e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    private static TripCreateRequest trip(LocalDate startDate, LocalDate endDate) {
+        TripCreateRequest trip = new TripCreateRequest();
+        trip.setTitle("Date order trip");
+        trip.setStartDate(startDate);
+        trip.setEndDate(endDate);
+        return trip;
+    }
+}
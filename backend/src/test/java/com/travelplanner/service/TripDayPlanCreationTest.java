@@ -0,0 +1,88 @@
+package com.travelplanner.service;
+
+import com.travelplanner.PostgresIntegrationTest;
+import com.travelplanner.dto.trip.TripCreateRequest;
+import com.travelplanner.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static com.travelplanner.metrics.QueryCountAssertions.assertStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Day plans of trips up to trips.day-plans.eager-max-days (120) are inserted
+ * with the trip by one statement whatever the length; longer trips get theirs
+ * on first read.
+ */
+class TripDayPlanCreationTest extends PostgresIntegrationTest {
+
+    private static final LocalDate START = LocalDate.of(2038, 1, 1);
+
+    // Trip, day plans and owner membership
+    private static final int EAGER_CREATE_STATEMENTS = 3;
+
+    private static final String DAY_PLANS_SQL = "SELECT COUNT(*) FROM day_plans WHERE trip_id = ?";
+
+    @Autowired
+    private TripService tripService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+
+    @BeforeEach
+    void seedOwner() {
+        owner = newUser("DayPlans");
+    }
+
+    @Test
+    void shortTripsInsertTheirDaysInOneStatement() {
+        for (int days : new int[] { 7, 90 }) {
+            UUID tripId = assertStatements(EAGER_CREATE_STATEMENTS, () -> create(days));
+
+            assertThat(dayPlans(tripId)).isEqualTo(days);
+        }
+    }
+
+    @Test
+    void longTripsInsertTheirDaysOnFirstRead() {
+        UUID tripId = assertStatements(EAGER_CREATE_STATEMENTS - 1, () -> create(365));
+        assertThat(dayPlans(tripId)).isZero();
+
+        assertThat(tripService.getDayPlans(tripId, owner)).hasSize(365);
+    }
+
+    @Test
+    void shortenedLongTripGetsItsDays() {
+        UUID tripId = create(200);
+
+        TripCreateRequest shortened = request(100);
+        tripService.updateTrip(tripId, shortened, owner, null);
+
+        assertThat(dayPlans(tripId)).isEqualTo(100);
+        assertThat(tripService.getDayPlans(tripId, owner)).hasSize(100);
+        assertThat(tripService.getItinerary(tripId, owner).getDayPlans()).hasSize(100);
+    }
+
+    private UUID create(int days) {
+        return tripService.createTrip(request(days), owner).getId();
+    }
+
+    private long dayPlans(UUID tripId) {
+        return jdbcTemplate.queryForObject(DAY_PLANS_SQL, Long.class, tripId);
+    }
+
+    private static TripCreateRequest request(int days) {
+        TripCreateRequest trip = new TripCreateRequest();
+        trip.setTitle(days + " day trip");
+        trip.setStartDate(START);
+        trip.setEndDate(START.plusDays(days - 1));
+        return trip;
+    }
+}
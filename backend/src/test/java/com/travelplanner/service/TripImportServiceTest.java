@@ -0,0 +1,156 @@
+package com.travelplanner.service;
+
+import com.travelplanner.PostgresIntegrationTest;
+import com.travelplanner.dto.transfer.TripImportResponse;
+import com.travelplanner.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Imports of hand-written NDJSON exports.
+ */
+class TripImportServiceTest extends PostgresIntegrationTest {
+
+    private static final String TRIP_ID = "00000000-0000-0000-0000-000000000001";
+
+    private static final String DAY_PLAN_ID = "00000000-0000-0000-0000-000000000002";
+
+    private static final String ACTIVITY_ID = "00000000-0000-0000-0000-000000000003";
+
+    private static final String TRIP =
+        "{\"type\":\"trip\",\"id\":\"" + TRIP_ID + "\",\"title\":\"Imported trip\"," +
+        "\"startDate\":\"2035-04-01\",\"endDate\":\"2035-04-03\",\"isPublic\":false}";
+
+    private static final String DAY_PLAN =
+        "{\"type\":\"dayPlan\",\"id\":\"" + DAY_PLAN_ID + "\",\"date\":\"2035-04-01\"}";
+
+    private static final String OWNED_TRIPS_SQL = "SELECT COUNT(*) FROM trips WHERE user_id = ?";
+
+    private static final String MEMBERS_SQL = "SELECT user_id FROM trip_members WHERE trip_id = ?";
+
+    private static final String INVITATIONS_SQL =
+        "SELECT inviter_id, invitee_id, invitee_email, status, role FROM invitations WHERE trip_id = ?";
+
+    private static final String COMMENTS_SQL =
+        "SELECT c.author_id, c.created_at FROM comments c JOIN activities a ON a.id = c.activity_id " +
+        "JOIN day_plans d ON d.id = a.day_plan_id WHERE d.trip_id = ?";
+
+    @Autowired
+    private TripImportService tripImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User importer;
+
+    @BeforeEach
+    void seedImporter() {
+        importer = newUser("TripImporter");
+    }
+
+    @Test
+    void importsKnownCategories() throws IOException {
+        TripImportResponse response = importTrips(TRIP, DAY_PLAN, activity("SIGHTSEEING"), activity(null));
+
+        assertThat(response.getTripIds()).hasSize(1);
+        assertThat(response.getActivities()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForList(
+            "SELECT a.category FROM activities a JOIN day_plans d ON d.id = a.day_plan_id WHERE d.trip_id = ?",
+            String.class, response.getTripIds().get(0))).containsExactlyInAnyOrder("SIGHTSEEING", null);
+    }
+
+    @Test
+    void membersAreInvitedAndCommentsAttributedToTheImporter() throws IOException {
+        User other = newUser("TripImportOther");
+        String unregistered = "trip-import-unregistered-" + UUID.randomUUID() + "@example.com";
+
+        LocalDateTime beforeImport = LocalDateTime.now().minusSeconds(1);
+        TripImportResponse response = importTrips(TRIP, DAY_PLAN,
+            member(importer.getEmail(), "OWNER"), member(other.getEmail(), "MEMBER"), member(unregistered, "OWNER"),
+            activity(ACTIVITY_ID, null),
+            comment(other.getEmail(), "2035-03-01T10:00:00"), comment(unregistered, null));
+        UUID tripId = response.getTripIds().get(0);
+
+        assertThat(response.getInvitations()).isEqualTo(2);
+        assertThat(response.getComments()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForList(MEMBERS_SQL, UUID.class, tripId)).containsExactly(importer.getId());
+        assertThat(jdbcTemplate.queryForList(INVITATIONS_SQL, tripId))
+            .extracting(row -> row.get("inviter_id"), row -> row.get("invitee_id"), row -> row.get("invitee_email"),
+                row -> row.get("status"), row -> row.get("role"))
+            .containsExactlyInAnyOrder(
+                tuple(importer.getId(), null, other.getEmail(), "PENDING", "MEMBER"),
+                tuple(importer.getId(), null, unregistered, "PENDING", "ADMIN"));
+        assertThat(jdbcTemplate.query(COMMENTS_SQL, (rs, rowNum) -> rs.getObject("author_id", UUID.class), tripId))
+            .containsOnly(importer.getId());
+        assertThat(jdbcTemplate.query(COMMENTS_SQL,
+                (rs, rowNum) -> rs.getObject("created_at", LocalDateTime.class), tripId))
+            .containsOnlyOnce(LocalDateTime.of(2035, 3, 1, 10, 0))
+            .anyMatch(createdAt -> createdAt.isAfter(beforeImport));
+    }
+
+    @Test
+    void unknownMemberRoleRejectsTheImport() {
+        assertRejected("Unknown member role: CAPTAIN",
+            TRIP, member(importer.getEmail(), "CAPTAIN"));
+        assertRejected("Member record without a role",
+            TRIP, member(importer.getEmail(), null));
+    }
+
+    @Test
+    void unknownActivityCategoryRejectsTheImport() {
+        assertRejected("Unknown activity category: PICNIC",
+            TRIP, DAY_PLAN, activity("PICNIC"));
+    }
+
+    private void assertRejected(String reason, String... lines) {
+        assertThatThrownBy(() -> importTrips(lines))
+            .isInstanceOfSatisfying(ResponseStatusException.class, e -> {
+                assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+                assertThat(e.getReason()).isEqualTo(reason);
+            });
+        assertThat(jdbcTemplate.queryForObject(OWNED_TRIPS_SQL, Long.class, importer.getId())).isZero();
+    }
+
+    private TripImportResponse importTrips(String... lines) throws IOException {
+        byte[] body = (String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8);
+        return tripImportService.importTrips(new ByteArrayInputStream(body), TripTransferCodec.Format.NDJSON, importer);
+    }
+
+    private static String member(String email, String role) {
+        return "{\"type\":\"member\",\"email\":\"" + email + "\",\"role\":" + quoted(role) +
+            ",\"canEdit\":true,\"canInvite\":false}";
+    }
+
+    private static String activity(String category) {
+        return activity(UUID.randomUUID().toString(), category);
+    }
+
+    private static String activity(String id, String category) {
+        return "{\"type\":\"activity\",\"id\":\"" + id + "\",\"dayPlanId\":\"" + DAY_PLAN_ID +
+            "\",\"title\":\"Imported activity\",\"category\":" + quoted(category) + ",\"isCompleted\":false}";
+    }
+
+    private static String comment(String authorEmail, String createdAt) {
+        return "{\"type\":\"comment\",\"id\":\"" + UUID.randomUUID() + "\",\"activityId\":\"" + ACTIVITY_ID +
+            "\",\"authorEmail\":\"" + authorEmail + "\",\"content\":\"Imported comment\",\"createdAt\":" +
+            quoted(createdAt) + "}";
+    }
+
+    private static String quoted(String value) {
+        return value == null ? "null" : "\"" + value + "\"";
+    }
+}
@@ -0,0 +1,85 @@
+package com.travelplanner.service;
+
+import com.travelplanner.PostgresIntegrationTest;
+import com.travelplanner.dto.trip.TripCreateRequest;
+import com.travelplanner.dto.trip.TripResponse;
+import com.travelplanner.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import static com.travelplanner.metrics.QueryCountAssertions.assertStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Trip listings read TripSummary projections plus one batched tag query
+ * (TripRepository.TRIP_SUMMARY_SELECT and findTagsByTripIds), so the number
+ * of statements per page is fixed whatever the page size. Hibernate
+ * Statistics, which the application enables, show nothing is loaded lazily.
+ */
+class TripListingStatementsTest extends PostgresIntegrationTest {
+
+    private static final int TRIPS = 6;
+
+    @Autowired
+    private TripService tripService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+
+    @BeforeEach
+    void seedTrips() {
+        owner = newUser("Listing");
+
+        for (int i = 0; i < TRIPS; i++) {
+            TripCreateRequest trip = new TripCreateRequest();
+            trip.setTitle("Listing trip " + i);
+            trip.setStartDate(LocalDate.of(2031, 1, 1).plusDays(i * 7L));
+            trip.setEndDate(LocalDate.of(2031, 1, 2).plusDays(i * 7L));
+            trip.setTagNames(Set.of("listing", "listing-" + i));
+            tripService.createTrip(trip, owner);
+        }
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void pageOfUserTripsCostsPageCountAndTags() {
+        for (int size : new int[] { 2, 5 }) {
+            long fetches = fetches();
+            Page<TripResponse> page = assertStatements(3, () -> tripService.getUserTrips(owner, PageRequest.of(0, size)));
+            assertThat(fetches()).as("entity and collection fetches").isEqualTo(fetches);
+
+            assertThat(page.getContent()).hasSize(size);
+            assertThat(page.getTotalElements()).isEqualTo(TRIPS);
+            assertThat(page.getContent()).allSatisfy(trip -> {
+                assertThat(trip.getTags()).hasSize(2);
+                assertThat(trip.getMemberCount()).isEqualTo(1);
+            });
+        }
+    }
+
+    @Test
+    void lastPageSkipsTheCount() {
+        long fetches = fetches();
+        Page<TripResponse> page = assertStatements(2, () -> tripService.getUserTrips(owner, PageRequest.of(0, 20)));
+        assertThat(fetches()).as("entity and collection fetches").isEqualTo(fetches);
+
+        assertThat(page.getContent()).hasSize(TRIPS);
+        assertThat(page.getTotalElements()).isEqualTo(TRIPS);
+    }
+
+    private long fetches() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return statistics.getEntityFetchCount() + statistics.getCollectionFetchCount();
+    }
+}
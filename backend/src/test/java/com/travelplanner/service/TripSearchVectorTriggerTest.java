@@ -0,0 +1,73 @@
+package com.travelplanner.service;
+
+import com.travelplanner.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The trip_tags triggers of V10: tag changes refresh trips.search_vector
+ * without moving trips.updated_at, which the itinerary ETag is built from.
+ */
+class TripSearchVectorTriggerTest extends PostgresIntegrationTest {
+
+    private static final String INSERT_TAGS_SQL =
+        "INSERT INTO tags (name) SELECT ? || g FROM generate_series(1, 5) g";
+
+    private static final String ATTACH_TAGS_SQL =
+        "INSERT INTO trip_tags (trip_id, tag_id) SELECT ?, id FROM tags WHERE name LIKE ? || '%'";
+
+    private static final String UPDATED_AT_SQL = "SELECT updated_at FROM trips WHERE id = ?";
+
+    private static final String MATCHES_SQL =
+        "SELECT search_vector @@ to_tsquery('simple', ?) FROM trips WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID tripId;
+
+    private String prefix;
+
+    @BeforeEach
+    void seedTrip() {
+        tripId = newTrip(newUser("Search"), LocalDate.of(2033, 6, 1), LocalDate.of(2033, 6, 2));
+
+        prefix = "sv" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+        jdbcTemplate.update(INSERT_TAGS_SQL, prefix);
+    }
+
+    @Test
+    void attachingAndDetachingTagsRefreshesTheVectorOnly() {
+        Timestamp updatedAt = jdbcTemplate.queryForObject(UPDATED_AT_SQL, Timestamp.class, tripId);
+
+        assertThat(jdbcTemplate.update(ATTACH_TAGS_SQL, tripId, prefix)).isEqualTo(5);
+        assertThat(matches(prefix + "1 & " + prefix + "5")).isTrue();
+        assertThat(jdbcTemplate.queryForObject(UPDATED_AT_SQL, Timestamp.class, tripId)).isEqualTo(updatedAt);
+
+        jdbcTemplate.update("DELETE FROM trip_tags WHERE trip_id = ?", tripId);
+        assertThat(matches(prefix + "1")).isFalse();
+        assertThat(jdbcTemplate.queryForObject(UPDATED_AT_SQL, Timestamp.class, tripId)).isEqualTo(updatedAt);
+    }
+
+    @Test
+    void editingTheTripStillMovesUpdatedAt() {
+        Timestamp updatedAt = jdbcTemplate.queryForObject(UPDATED_AT_SQL, Timestamp.class, tripId);
+
+        jdbcTemplate.update("UPDATE trips SET destination = 'Porto' WHERE id = ?", tripId);
+
+        assertThat(jdbcTemplate.queryForObject(UPDATED_AT_SQL, Timestamp.class, tripId)).isAfter(updatedAt);
+        assertThat(matches("porto")).isTrue();
+    }
+
+    private boolean matches(String query) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(MATCHES_SQL, Boolean.class, query, tripId));
+    }
+}